@@ -1,6 +1,7 @@
 package com.laidekuai.cart.controller;
 
 import com.laidekuai.cart.dto.AddToCartRequest;
+import com.laidekuai.cart.dto.CartBatchRequest;
 import com.laidekuai.cart.dto.CartItemResponse;
 import com.laidekuai.cart.dto.UpdateCartRequest;
 import com.laidekuai.cart.service.CartService;
@@ -48,6 +49,17 @@ public class CartController {
         return cartService.addToCart(request, userId);
     }
 
+    /**
+     * 批量加入/更新购物车（再次购买等场景）
+     */
+    @PostMapping("/batch")
+    public Result<List<CartItemResponse>> batchUpsert(
+            @Valid @RequestBody CartBatchRequest request,
+            HttpServletRequest httpRequest) {
+        Long userId = getCurrentUserId(httpRequest);
+        return cartService.batchUpsert(request, userId);
+    }
+
     /**
      * 更新购物车商品数量
      */
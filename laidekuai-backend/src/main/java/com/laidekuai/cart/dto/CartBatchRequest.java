@@ -0,0 +1,30 @@
+package com.laidekuai.cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量加入/更新购物车请求
+ *
+ * @author Laidekuai Team
+ */
+@Data
+public class CartBatchRequest {
+
+    /**
+     * 商品及数量（累加模式下同一商品出现多次时数量合并；覆盖模式下不允许重复）
+     */
+    @Valid
+    @NotEmpty(message = "商品列表不能为空")
+    @Size(max = 100, message = "单次最多100个商品")
+    private List<AddToCartRequest> items;
+
+    /**
+     * true：数量覆盖为请求值；false（默认）：在已有数量上累加（再次购买）
+     */
+    private Boolean replace;
+}
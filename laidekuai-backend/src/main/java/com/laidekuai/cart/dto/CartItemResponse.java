@@ -33,10 +33,25 @@ public class CartItemResponse {
     private String goodsImage;
 
     /**
-     * 商品价格
+     * 商品价格（加入购物车时的快照价）
      */
     private BigDecimal goodsPrice;
 
+    /**
+     * 商品当前价格
+     */
+    private BigDecimal currentPrice;
+
+    /**
+     * 当前价格与快照价不一致
+     */
+    private Boolean priceChanged;
+
+    /**
+     * 当前可购买（商品已上架且库存不少于购买数量）
+     */
+    private Boolean available;
+
     /**
      * 购买数量
      */
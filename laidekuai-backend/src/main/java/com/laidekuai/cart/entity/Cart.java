@@ -61,6 +61,12 @@ public class Cart {
      */
     private LocalDateTime updatedAt;
 
+    /**
+     * 行版本：updateById 与批量 upsert 时 +1（写回刷盘不改变），写回日志恢复时据此跳过之后被同步修改过的记录
+     */
+    @TableField(update = "%s+1", updateStrategy = FieldStrategy.ALWAYS)
+    private Long version;
+
     /**
      * 逻辑删除标记
      */
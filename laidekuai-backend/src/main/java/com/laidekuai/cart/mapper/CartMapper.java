@@ -5,6 +5,9 @@ import com.laidekuai.cart.entity.Cart;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 购物车Mapper
  *
@@ -21,4 +24,34 @@ public interface CartMapper extends BaseMapper<Cart> {
      * @return 购物车记录
      */
     Cart findByUserAndGoods(@Param("userId") Long userId, @Param("goodsId") Long goodsId);
+
+    /**
+     * 批量加入/更新购物车（按 uk_cart_user_goods 一条语句 upsert）
+     *
+     * 已逻辑删除的记录会被恢复，并刷新标题、图片、价格快照。
+     *
+     * @param items   购物车记录（userId、goodsId、快照字段、数量）
+     * @param replace true 覆盖数量，false 在未删除记录的数量上累加
+     * @return 影响行数
+     */
+    int upsertBatch(@Param("items") List<Cart> items, @Param("replace") boolean replace);
+
+    /**
+     * 批量写入购物车数量（写回模式定时刷盘）
+     *
+     * @param quantities 购物车ID -> 数量
+     * @return 影响行数
+     */
+    int updateQuantityBatch(@Param("quantities") Map<Long, Integer> quantities);
+
+    /**
+     * 按写回日志恢复数量：记录在暂存之后被同步修改过（version 已变化）时跳过
+     *
+     * @param id       购物车ID
+     * @param quantity 数量
+     * @param version  暂存时读到的行版本
+     * @return 影响行数
+     */
+    int restoreQuantity(@Param("id") Long id, @Param("quantity") Integer quantity,
+                        @Param("version") Long version);
 }
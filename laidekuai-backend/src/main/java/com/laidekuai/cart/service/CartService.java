@@ -1,6 +1,7 @@
 package com.laidekuai.cart.service;
 
 import com.laidekuai.cart.dto.AddToCartRequest;
+import com.laidekuai.cart.dto.CartBatchRequest;
 import com.laidekuai.cart.dto.CartItemResponse;
 import com.laidekuai.cart.dto.UpdateCartRequest;
 import com.laidekuai.common.dto.Result;
@@ -57,4 +58,13 @@ public interface CartService {
      * @return 清空结果
      */
     Result<Void> clearCart(Long userId);
+
+    /**
+     * 批量加入/更新购物车
+     *
+     * @param request 批量请求
+     * @param userId  用户ID
+     * @return 更新后的购物车
+     */
+    Result<List<CartItemResponse>> batchUpsert(CartBatchRequest request, Long userId);
 }
@@ -0,0 +1,504 @@
+package com.laidekuai.cart.service;
+
+import com.laidekuai.cart.entity.Cart;
+import com.laidekuai.cart.mapper.CartMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 购物车数量写回缓存（app.cart.write-behind.enabled=true 时启用）
+ *
+ * 数量 +/- 只修改内存中该用户的待写记录（按用户 ID 分段加锁），同一条记录的多次修改合并为最后一次，
+ * 由定时任务按批写入 cart；该用户的其它购物车操作（加入、删除、清空、批量）执行前先写入其待写记录。
+ * 每次修改同时追加到本地日志文件（含暂存时读到的行版本），进程崩溃后启动时按日志恢复；
+ * 恢复时跳过之后被同步修改过的记录（cart.version 已变化，不依赖本机与数据库时钟）。
+ * 待写记录全部写库后截断日志。待写用户数达到上限时不再接收新用户，调用方直接同步写库。
+ *
+ * 注意：待写记录只存在于当前进程，同一用户的修改可能分散在多个实例、以任意顺序刷盘，
+ * 其它实例读购物车也看不到本实例的待写数量，仅适用于单实例部署；默认关闭。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+public class CartWriteBehindStore {
+
+    private static final int STRIPES = 64;
+
+    private static final String JOURNAL_FILE = "cart-write-behind.log";
+
+    private static final String FLUSHING_FILE = "cart-write-behind.flushing";
+
+    private final CartMapper cartMapper;
+
+    private final boolean enabled;
+
+    private final int maxDirtyUsers;
+
+    private final int batchSize;
+
+    private final Path journalDir;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    private final Map<Long, Map<Long, Pending>> dirty = new ConcurrentHashMap<>();
+
+    private final ReentrantLock journalLock = new ReentrantLock();
+
+    private BufferedWriter journal;
+
+    private final AtomicLong staged = new AtomicLong(0);
+    private final AtomicLong flushedRows = new AtomicLong(0);
+    private final AtomicLong overflows = new AtomicLong(0);
+    private final AtomicLong failures = new AtomicLong(0);
+
+    public CartWriteBehindStore(CartMapper cartMapper,
+                                @Value("${app.cart.write-behind.enabled:false}") boolean enabled,
+                                @Value("${app.cart.write-behind.max-dirty-users:10000}") int maxDirtyUsers,
+                                @Value("${app.cart.write-behind.batch-size:500}") int batchSize,
+                                @Value("${app.cart.write-behind.journal-dir:data/cart-journal}") String journalDir) {
+        this.cartMapper = cartMapper;
+        this.enabled = enabled;
+        this.maxDirtyUsers = maxDirtyUsers;
+        this.batchSize = Math.max(batchSize, 1);
+        this.journalDir = Paths.get(journalDir);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 暂存数量修改；返回 false 时（未启用、待写用户已满、日志写入失败）调用方需同步写库
+     *
+     * @param row      购物车记录（需含 id、userId、goodsId）
+     * @param quantity 新数量
+     */
+    public boolean stage(Cart row, int quantity) {
+        if (!enabled) {
+            return false;
+        }
+        Long userId = row.getUserId();
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            Map<Long, Pending> rows = dirty.get(userId);
+            if (rows == null && dirty.size() >= maxDirtyUsers) {
+                overflows.incrementAndGet();
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            try {
+                appendJournal(List.of(new Pending(copyOf(row), quantity, now)));
+            } catch (IOException e) {
+                failures.incrementAndGet();
+                log.warn("购物车写回日志写入失败, 改为同步写库, 用户ID: {}", userId, e);
+                return false;
+            }
+            if (rows == null) {
+                rows = new LinkedHashMap<>();
+                dirty.put(userId, rows);
+            }
+            rows.put(row.getId(), new Pending(copyOf(row), quantity, now));
+            staged.incrementAndGet();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 用户的待写记录（数量为待写值），不存在返回 null
+     */
+    public Cart pendingRow(Long userId, Long cartId) {
+        if (!enabled) {
+            return null;
+        }
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            Map<Long, Pending> rows = dirty.get(userId);
+            Pending pending = rows == null ? null : rows.get(cartId);
+            if (pending == null) {
+                return null;
+            }
+            Cart cart = copyOf(pending.row());
+            cart.setQuantity(pending.quantity());
+            return cart;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 用户的待写数量（购物车ID -> 数量），用于读购物车时覆盖库中的值
+     */
+    public Map<Long, Integer> pendingQuantities(Long userId) {
+        if (!enabled) {
+            return Map.of();
+        }
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            Map<Long, Pending> rows = dirty.get(userId);
+            if (rows == null) {
+                return Map.of();
+            }
+            Map<Long, Integer> result = new HashMap<>();
+            rows.forEach((cartId, pending) -> result.put(cartId, pending.quantity()));
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 立即写入该用户的待写记录（在当前事务中执行，事务回滚时放回待写）
+     */
+    public void flushUser(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        Map<Long, Pending> rows = drain(userId);
+        if (rows == null) {
+            return;
+        }
+        try {
+            write(rows.values());
+        } catch (RuntimeException e) {
+            restoreAndJournal(userId, rows);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        restoreAndJournal(userId, rows);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 定时批量写入所有待写记录
+     *
+     * 先切换日志文件再取出待写记录：旧日志中的每条修改都已进入本次取出的记录，写库成功后即可删除旧日志。
+     * 没有待写记录但日志非空（待写记录已由 flushUser 写入）时同样切换并删除日志。
+     */
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled || (dirty.isEmpty() && !hasJournal())) {
+            return;
+        }
+        Path flushing;
+        try {
+            flushing = rotateJournal();
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            log.error("购物车写回日志切换失败, 本轮不刷盘", e);
+            return;
+        }
+
+        Map<Long, Map<Long, Pending>> drained = new HashMap<>();
+        for (Long userId : new ArrayList<>(dirty.keySet())) {
+            Map<Long, Pending> rows = drain(userId);
+            if (rows != null) {
+                drained.put(userId, rows);
+            }
+        }
+
+        List<Pending> all = new ArrayList<>();
+        drained.values().forEach(rows -> all.addAll(rows.values()));
+        try {
+            write(all);
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.error("购物车写回刷盘失败, {} 条记录放回待写", all.size(), e);
+            List<Pending> restored = new ArrayList<>();
+            drained.forEach((userId, rows) -> restored.addAll(restore(userId, rows)));
+            try {
+                // 放回的记录重新写入当前日志，旧日志随后删除
+                appendJournal(restored);
+            } catch (IOException journalError) {
+                log.error("购物车写回日志重写失败, 保留旧日志: {}", flushing, journalError);
+                return;
+            }
+        }
+        deleteQuietly(flushing);
+    }
+
+    /**
+     * 启动时按日志恢复上次未写入的修改
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int restored = replay();
+            if (restored > 0) {
+                log.info("购物车写回日志恢复完成, 写入 {} 条记录", restored);
+            }
+        } catch (IOException | RuntimeException e) {
+            // 恢复失败保留日志文件，下次启动重试
+            log.error("购物车写回日志恢复失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        journalLock.lock();
+        try {
+            closeJournal();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * 有待刷写改动的用户数
+     */
+    public int dirtyUserCount() {
+        return dirty.size();
+    }
+
+    /**
+     * 已刷写到数据库的行数（累计）
+     */
+    public long flushedRowCount() {
+        return flushedRows.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("dirtyUsers", dirty.size());
+        result.put("staged", staged.get());
+        result.put("flushedRows", flushedRows.get());
+        result.put("overflows", overflows.get());
+        result.put("failures", failures.get());
+        return result;
+    }
+
+    int replay() throws IOException {
+        Map<Long, String[]> latest = new LinkedHashMap<>();
+        for (Path file : List.of(journalDir.resolve(FLUSHING_FILE), journalDir.resolve(JOURNAL_FILE))) {
+            if (!Files.exists(file)) {
+                continue;
+            }
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(",");
+                // 末行可能因崩溃写了一半，字段不全的直接跳过
+                if (fields.length == 5) {
+                    latest.put(Long.parseLong(fields[2]), fields);
+                }
+            }
+        }
+        int restored = 0;
+        for (Map.Entry<Long, String[]> entry : latest.entrySet()) {
+            String[] fields = entry.getValue();
+            restored += cartMapper.restoreQuantity(entry.getKey(), Integer.parseInt(fields[3]), Long.parseLong(fields[4]));
+        }
+        journalLock.lock();
+        try {
+            closeJournal();
+            deleteQuietly(journalDir.resolve(FLUSHING_FILE));
+            deleteQuietly(journalDir.resolve(JOURNAL_FILE));
+        } finally {
+            journalLock.unlock();
+        }
+        return restored;
+    }
+
+    private Map<Long, Pending> drain(Long userId) {
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            return dirty.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 放回待写（不覆盖期间产生的更新的修改）
+     *
+     * @return 实际放回的记录
+     */
+    private List<Pending> restore(Long userId, Map<Long, Pending> rows) {
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            Map<Long, Pending> current = dirty.computeIfAbsent(userId, key -> new LinkedHashMap<>());
+            List<Pending> restored = new ArrayList<>();
+            rows.forEach((cartId, pending) -> {
+                if (current.putIfAbsent(cartId, pending) == null) {
+                    restored.add(pending);
+                }
+            });
+            return restored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 放回待写并重新记日志（原日志行可能已随刷盘截断）
+     */
+    private void restoreAndJournal(Long userId, Map<Long, Pending> rows) {
+        List<Pending> restored = restore(userId, rows);
+        try {
+            appendJournal(restored);
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            log.error("购物车写回日志重写失败, 用户ID: {}", userId, e);
+        }
+    }
+
+    private void write(Collection<Pending> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (Pending pending : rows) {
+            quantities.put(pending.row().getId(), pending.quantity());
+            if (quantities.size() >= batchSize) {
+                cartMapper.updateQuantityBatch(quantities);
+                flushedRows.addAndGet(quantities.size());
+                quantities = new LinkedHashMap<>();
+            }
+        }
+        if (!quantities.isEmpty()) {
+            cartMapper.updateQuantityBatch(quantities);
+            flushedRows.addAndGet(quantities.size());
+        }
+    }
+
+    private void appendJournal(List<Pending> entries) throws IOException {
+        journalLock.lock();
+        try {
+            if (journal == null) {
+                Files.createDirectories(journalDir);
+                journal = Files.newBufferedWriter(journalDir.resolve(JOURNAL_FILE), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (Pending pending : entries) {
+                journal.write(pending.journaledAt() + "," + pending.row().getUserId() + ","
+                        + pending.row().getId() + "," + pending.quantity() + "," + versionOf(pending.row()));
+                journal.newLine();
+            }
+            journal.flush();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private boolean hasJournal() {
+        journalLock.lock();
+        try {
+            return journal != null || Files.exists(journalDir.resolve(FLUSHING_FILE));
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private Path rotateJournal() throws IOException {
+        journalLock.lock();
+        try {
+            closeJournal();
+            Path current = journalDir.resolve(JOURNAL_FILE);
+            Path flushing = journalDir.resolve(FLUSHING_FILE);
+            if (!Files.exists(current)) {
+                return flushing;
+            }
+            if (Files.exists(flushing)) {
+                // 上一轮的旧日志未能删除（重写失败），合并后一起处理
+                Files.write(flushing, Files.readAllBytes(current), StandardOpenOption.APPEND);
+                Files.delete(current);
+            } else {
+                Files.move(current, flushing, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return flushing;
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("购物车写回日志关闭失败", e);
+        }
+        journal = null;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("购物车写回日志删除失败: {}", file, e);
+        }
+    }
+
+    private ReentrantLock stripe(Long userId) {
+        return stripes[Math.floorMod(Long.hashCode(userId), STRIPES)];
+    }
+
+    private static Cart copyOf(Cart source) {
+        Cart copy = new Cart();
+        copy.setId(source.getId());
+        copy.setUserId(source.getUserId());
+        copy.setGoodsId(source.getGoodsId());
+        copy.setGoodsTitle(source.getGoodsTitle());
+        copy.setGoodsImage(source.getGoodsImage());
+        copy.setGoodsPrice(source.getGoodsPrice());
+        copy.setQuantity(source.getQuantity());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+
+    private static long versionOf(Cart row) {
+        return row.getVersion() != null ? row.getVersion() : 0L;
+    }
+
+    private record Pending(Cart row, int quantity, long journaledAt) {
+    }
+}
@@ -1,26 +1,32 @@
 package com.laidekuai.cart.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.laidekuai.cart.dto.AddToCartRequest;
+import com.laidekuai.cart.dto.CartBatchRequest;
 import com.laidekuai.cart.dto.CartItemResponse;
 import com.laidekuai.cart.dto.UpdateCartRequest;
 import com.laidekuai.cart.entity.Cart;
 import com.laidekuai.cart.mapper.CartMapper;
 import com.laidekuai.cart.service.CartService;
+import com.laidekuai.cart.service.CartWriteBehindStore;
 import com.laidekuai.common.dto.ErrorCode;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.enums.GoodsStatus;
 import com.laidekuai.goods.entity.Goods;
 import com.laidekuai.goods.mapper.GoodsMapper;
+import com.laidekuai.goods.service.GoodsDetailCache;
+import com.laidekuai.goods.service.GoodsImageCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -34,12 +40,15 @@ public class CartServiceImpl implements CartService {
 
     private final CartMapper cartMapper;
     private final GoodsMapper goodsMapper;
-    private final ObjectMapper objectMapper;
+    private final GoodsImageCache goodsImageCache;
+    private final GoodsDetailCache goodsDetailCache;
+    private final CartWriteBehindStore cartWriteBehindStore;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Result<CartItemResponse> addToCart(AddToCartRequest request, Long userId) {
         log.info("娣诲姞鍟嗗搧鍒拌喘鐗╄溅锛岀敤鎴稩D: {}, 鍟嗗搧ID: {}, 鏁伴噺: {}", userId, request.getGoodsId(), request.getQuantity());
+        cartWriteBehindStore.flushUser(userId);
 
         // 1. 鏌ヨ鍟嗗搧鏄惁瀛樺湪
         Goods goods = goodsMapper.selectById(request.getGoodsId());
@@ -82,7 +91,7 @@ public class CartServiceImpl implements CartService {
             cart.setUserId(userId);
             cart.setGoodsId(goods.getId());
             cart.setGoodsTitle(goods.getTitle());
-            cart.setGoodsImage(getFirstImage(goods.getImageUrls()));
+            cart.setGoodsImage(goodsImageCache.cover(goods));
             cart.setGoodsPrice(goods.getPrice());
             cart.setQuantity(request.getQuantity());
             cart.setCreatedAt(LocalDateTime.now());
@@ -99,8 +108,11 @@ public class CartServiceImpl implements CartService {
     public Result<CartItemResponse> updateCartItem(Long cartId, UpdateCartRequest request, Long userId) {
         log.info("鏇存柊璐墿杞﹀晢鍝佹暟閲忥紝璐墿杞D: {}, 鐢ㄦ埛ID: {}, 鏁伴噺: {}", cartId, userId, request.getQuantity());
 
-        // 1. Load cart record
-        Cart cart = cartMapper.selectById(cartId);
+        // 1. Load cart record（写回模式下优先取该用户的待写记录）
+        Cart cart = cartWriteBehindStore.pendingRow(userId, cartId);
+        if (cart == null) {
+            cart = cartMapper.selectById(cartId);
+        }
         if (cart == null) {
             log.warn("璐墿杞﹁褰曚笉瀛樺湪: {}", cartId);
             return Result.error(ErrorCode.NOT_FOUND);
@@ -114,7 +126,10 @@ public class CartServiceImpl implements CartService {
         }
 
         // 3. 鏌ヨ鍟嗗搧鏈€鏂颁俊鎭紙妫€鏌ュ簱瀛橈級
-        Goods goods = goodsMapper.selectById(cart.getGoodsId());
+        Goods goods = cartWriteBehindStore.isEnabled() ? goodsDetailCache.get(cart.getGoodsId()) : null;
+        if (goods == null) {
+            goods = goodsMapper.selectById(cart.getGoodsId());
+        }
         if (goods == null) {
             log.warn("鍟嗗搧涓嶅瓨鍦? {}", cart.getGoodsId());
             return Result.error(ErrorCode.GOODS_NOT_FOUND);
@@ -128,9 +143,13 @@ public class CartServiceImpl implements CartService {
         }
 
         // 5. 鏇存柊鏁伴噺
+        // 写回模式下暂存数量，由 CartWriteBehindStore 定时批量写库
+        if (!cartWriteBehindStore.stage(cart, request.getQuantity())) {
+            cart.setQuantity(request.getQuantity());
+            cart.setUpdatedAt(LocalDateTime.now());
+            cartMapper.updateById(cart);
+        }
         cart.setQuantity(request.getQuantity());
-        cart.setUpdatedAt(LocalDateTime.now());
-        cartMapper.updateById(cart);
 
         log.info("璐墿杞﹀晢鍝佹暟閲忔洿鏂版垚鍔燂紝璐墿杞D: {}", cartId);
 
@@ -141,6 +160,7 @@ public class CartServiceImpl implements CartService {
     @Transactional(rollbackFor = Exception.class)
     public Result<Void> removeFromCart(Long cartId, Long userId) {
         log.info("浠庤喘鐗╄溅鍒犻櫎鍟嗗搧锛岃喘鐗╄溅ID: {}, 鐢ㄦ埛ID: {}", cartId, userId);
+        cartWriteBehindStore.flushUser(userId);
 
         // 1. Load cart record
         Cart cart = cartMapper.selectById(cartId);
@@ -174,14 +194,26 @@ public class CartServiceImpl implements CartService {
         wrapper.orderByDesc(Cart::getCreatedAt);
 
         List<Cart> cartList = cartMapper.selectList(wrapper);
+        Map<Long, Integer> pending = cartWriteBehindStore.pendingQuantities(userId);
+        if (!pending.isEmpty()) {
+            cartList.forEach(cart -> cart.setQuantity(pending.getOrDefault(cart.getId(), cart.getQuantity())));
+        }
+
+        // 2. 一次查询所有商品的最新信息，同时标记价格、库存、状态的变化
+        Map<Long, Goods> goodsMap = cartList.isEmpty() ? Map.of()
+                : goodsMapper.selectBatchIds(cartList.stream().map(Cart::getGoodsId).distinct().toList())
+                        .stream()
+                        .collect(Collectors.toMap(Goods::getId, Function.identity()));
 
-        // 2. Build response with latest goods info
         List<CartItemResponse> responseList = cartList.stream()
-                .map(cart -> {
-                    Goods goods = goodsMapper.selectById(cart.getGoodsId());
-                    return buildCartItemResponse(cart, goods);
-                })
+                .map(cart -> buildCartItemResponse(cart, goodsMap.get(cart.getGoodsId())))
                 .collect(Collectors.toList());
+        long drifted = responseList.stream()
+                .filter(item -> Boolean.TRUE.equals(item.getPriceChanged()) || !Boolean.TRUE.equals(item.getAvailable()))
+                .count();
+        if (drifted > 0) {
+            log.debug("购物车商品信息有变化，用户ID: {}, 变化数量: {}", userId, drifted);
+        }
 
         log.info("璐墿杞︽煡璇㈡垚鍔燂紝鐢ㄦ埛ID: {}, 鍟嗗搧鏁伴噺: {}", userId, responseList.size());
 
@@ -191,23 +223,78 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Result<Void> clearCart(Long userId) {
-        log.info("娓呯┖璐墿杞︼紝鐢ㄦ埛ID: {}", userId);
+        log.info("清空购物车，用户ID: {}", userId);
+        cartWriteBehindStore.flushUser(userId);
 
-        // 1. 鏌ヨ鎵€鏈夎喘鐗╄溅璁板綍
-        // 1. Query cart list
+        // 一条语句逻辑删除（UPDATE cart SET deleted = 1 WHERE user_id = ? AND deleted = 0）
         LambdaQueryWrapper<Cart> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(Cart::getUserId, userId);
+        int deleted = cartMapper.delete(wrapper);
 
-        List<Cart> cartList = cartMapper.selectList(wrapper);
+        log.info("购物车清空成功，用户ID: {}, 删除记录数: {}", userId, deleted);
+
+        return Result.success();
+    }
 
-        // 2. 閫愪釜鍒犻櫎
-        for (Cart cart : cartList) {
-            cartMapper.deleteById(cart.getId());
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Result<List<CartItemResponse>> batchUpsert(CartBatchRequest request, Long userId) {
+        boolean replace = Boolean.TRUE.equals(request.getReplace());
+
+        // 1. 合并同一商品的数量（覆盖模式下目标数量有歧义，拒绝重复商品）
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (AddToCartRequest item : request.getItems()) {
+            if (replace && quantities.containsKey(item.getGoodsId())) {
+                log.warn("覆盖模式下商品重复，用户ID: {}, 商品ID: {}", userId, item.getGoodsId());
+                return Result.error(ErrorCode.BAD_REQUEST.getCode(), "覆盖模式下同一商品只能出现一次");
+            }
+            quantities.merge(item.getGoodsId(), item.getQuantity(), Integer::sum);
+        }
+        cartWriteBehindStore.flushUser(userId);
+        log.info("批量更新购物车，用户ID: {}, 商品数: {}, 覆盖: {}", userId, quantities.size(), replace);
+
+        // 2. 一次查询商品与已有购物车记录，校验状态与库存
+        Map<Long, Goods> goodsMap = goodsMapper.selectBatchIds(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Goods::getId, Function.identity()));
+        Map<Long, Integer> existing = Map.of();
+        if (!replace) {
+            LambdaQueryWrapper<Cart> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(Cart::getUserId, userId).in(Cart::getGoodsId, quantities.keySet());
+            existing = cartMapper.selectList(wrapper).stream()
+                    .collect(Collectors.toMap(Cart::getGoodsId, Cart::getQuantity, (a, b) -> a));
         }
 
-        log.info("璐墿杞︽竻绌烘垚鍔燂紝鐢ㄦ埛ID: {}, 鍒犻櫎璁板綍鏁? {}", userId, cartList.size());
+        List<Cart> rows = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Goods goods = goodsMap.get(entry.getKey());
+            if (goods == null) {
+                log.warn("商品不存在: {}", entry.getKey());
+                return Result.error(ErrorCode.GOODS_NOT_FOUND);
+            }
+            if (goods.getStatus() != GoodsStatus.APPROVED) {
+                log.warn("商品未上架，商品ID: {}, 状态: {}", goods.getId(), goods.getStatus());
+                return Result.error(ErrorCode.GOODS_STATUS_ERROR);
+            }
+            int targetQuantity = entry.getValue() + existing.getOrDefault(goods.getId(), 0);
+            if (goods.getStock() < targetQuantity) {
+                log.warn("商品库存不足，商品ID: {}, 库存: {}, 请求数量: {}", goods.getId(), goods.getStock(), targetQuantity);
+                return Result.error(ErrorCode.GOODS_STOCK_INSUFFICIENT);
+            }
 
-        return Result.success();
+            Cart cart = new Cart();
+            cart.setUserId(userId);
+            cart.setGoodsId(goods.getId());
+            cart.setGoodsTitle(goods.getTitle());
+            cart.setGoodsImage(goodsImageCache.cover(goods));
+            cart.setGoodsPrice(goods.getPrice());
+            cart.setQuantity(entry.getValue());
+            rows.add(cart);
+        }
+
+        // 3. 一条 INSERT ... ON DUPLICATE KEY UPDATE 写入
+        cartMapper.upsertBatch(rows, replace);
+
+        return getMyCart(userId);
     }
 
     /**
@@ -226,27 +313,23 @@ public class CartServiceImpl implements CartService {
         if (goods != null) {
             response.setGoodsStatus(goods.getStatus().name());
             response.setGoodsStock(goods.getStock());
+            response.setCurrentPrice(goods.getPrice());
+            response.setPriceChanged(cart.getGoodsPrice() != null && goods.getPrice() != null
+                    && cart.getGoodsPrice().compareTo(goods.getPrice()) != 0);
+            response.setAvailable(goods.getStatus() == GoodsStatus.APPROVED
+                    && goods.getStock() != null && cart.getQuantity() != null
+                    && goods.getStock() >= cart.getQuantity());
+            String cover = goodsImageCache.cover(goods);
+            if (cover != null) {
+                response.setGoodsImage(cover);
+            }
         } else {
             response.setGoodsStatus("NOT_FOUND");
             response.setGoodsStock(0);
+            response.setPriceChanged(false);
+            response.setAvailable(false);
         }
 
         return response;
     }
-
-    /**
-     * 浠嶫SON鏁扮粍涓幏鍙栫涓€寮犲浘鐗?     */
-    // Get first image from JSON array string
-    private String getFirstImage(String imageUrlsJson) {
-        if (imageUrlsJson == null || imageUrlsJson.isEmpty()) {
-            return null;
-        }
-        try {
-            String[] urls = objectMapper.readValue(imageUrlsJson, String[].class);
-            return urls != null && urls.length > 0 ? urls[0] : null;
-        } catch (JsonProcessingException e) {
-            log.warn("瑙ｆ瀽鍟嗗搧鍥剧墖URL澶辫触: {}", imageUrlsJson, e);
-            return null;
-        }
-    }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.laidekuai.category.controller;
 
 import com.laidekuai.category.dto.CategoryCreateRequest;
+import com.laidekuai.category.dto.CategoryTreeSnapshot;
 import com.laidekuai.category.dto.CategoryUpdateRequest;
 import com.laidekuai.category.entity.Category;
 import com.laidekuai.category.service.CategoryService;
 import com.laidekuai.common.dto.Result;
+import com.laidekuai.common.util.HttpCacheUtils;
 import com.laidekuai.common.util.SecurityUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -12,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -36,18 +39,38 @@ public class CategoryController {
      * 获取分类树形列表（公开接口）
      */
     @GetMapping
-    public Result<List<Category>> getCategoryTree() {
-        log.info("获取分类树形列表");
-        return categoryService.getCategoryTree();
+    public Result<List<Category>> getCategoryTree(WebRequest webRequest) {
+        CategoryTreeSnapshot snapshot = categoryService.getCategoryTreeSnapshot();
+        // 客户端缓存的 ETag 未变化时直接返回 304
+        if (HttpCacheUtils.checkNotModified(webRequest, snapshot.getEtag())) {
+            return null;
+        }
+        return Result.success(snapshot.getTree());
     }
 
     /**
      * 获取分类详情（公开接口）
      */
     @GetMapping("/{id}")
-    public Result<Category> getCategoryById(@PathVariable Long id) {
+    public Result<Category> getCategoryById(@PathVariable Long id, WebRequest webRequest) {
         log.info("获取分类详情，分类ID: {}", id);
-        return categoryService.getCategoryById(id);
+        Result<Category> result = categoryService.getCategoryById(id);
+        if (result.isSuccess() && HttpCacheUtils.checkNotModified(webRequest, categoryEtag(List.of(result.getData())))) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * 获取分类路径/面包屑（公开接口）
+     */
+    @GetMapping("/{id}/path")
+    public Result<List<Category>> getCategoryPath(@PathVariable Long id, WebRequest webRequest) {
+        Result<List<Category>> result = categoryService.getCategoryPath(id);
+        if (result.isSuccess() && HttpCacheUtils.checkNotModified(webRequest, categoryEtag(result.getData()))) {
+            return null;
+        }
+        return result;
     }
 
     /**
@@ -89,4 +112,8 @@ public class CategoryController {
         log.info("删除分类，分类ID: {}, 操作人: {}", id, adminId);
         return categoryService.deleteCategory(id);
     }
+
+    private static String categoryEtag(List<Category> categories) {
+        return HttpCacheUtils.etag(categories, category -> category.getId() + ":" + category.getUpdatedAt());
+    }
 }
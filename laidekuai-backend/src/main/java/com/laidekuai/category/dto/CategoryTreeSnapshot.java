@@ -0,0 +1,30 @@
+package com.laidekuai.category.dto;
+
+import com.laidekuai.category.entity.Category;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 分类树快照（构建后不再修改，分类变更时整体替换）
+ *
+ * @author Laidekuai Team
+ */
+@Getter
+public class CategoryTreeSnapshot {
+
+    /**
+     * 根节点列表（不可变）
+     */
+    private final List<Category> tree;
+
+    /**
+     * 内容摘要，用作 HTTP ETag
+     */
+    private final String etag;
+
+    public CategoryTreeSnapshot(List<Category> tree, String etag) {
+        this.tree = List.copyOf(tree);
+        this.etag = etag;
+    }
+}
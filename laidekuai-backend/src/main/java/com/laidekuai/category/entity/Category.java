@@ -37,6 +37,11 @@ public class Category {
      */
     private Integer level;
 
+    /**
+     * 物化路径：/根ID/.../自身ID/
+     */
+    private String path;
+
     /**
      * 排序号
      */
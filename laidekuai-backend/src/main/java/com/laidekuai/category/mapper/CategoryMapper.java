@@ -20,4 +20,38 @@ public interface CategoryMapper extends BaseMapper<Category> {
      * @return 商品数量
      */
     long countGoodsByCategory(@Param("categoryId") Long categoryId);
+
+    /**
+     * 查询以指定路径为前缀的子树中的最大层级
+     *
+     * @param prefix 路径前缀（含自身）
+     * @return 最大层级
+     */
+    Integer selectMaxLevelByPathPrefix(@Param("prefix") String prefix);
+
+    /**
+     * 移动子树时批量更新后代节点的路径与层级
+     *
+     * @param oldPrefix 原路径前缀
+     * @param newPrefix 新路径前缀
+     * @param levelDelta 层级变化量
+     * @return 影响行数
+     */
+    int moveDescendants(@Param("oldPrefix") String oldPrefix,
+                        @Param("newPrefix") String newPrefix,
+                        @Param("levelDelta") int levelDelta);
+
+    /**
+     * 查询分类树版本，用于判断分类树快照是否过期
+     *
+     * @return 版本号
+     */
+    Long selectTreeVersion();
+
+    /**
+     * 分类树版本 +1（须与分类写操作在同一事务内调用）
+     *
+     * @return 影响行数
+     */
+    int incrementTreeVersion();
 }
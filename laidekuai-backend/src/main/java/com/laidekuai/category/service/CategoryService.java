@@ -1,6 +1,7 @@
 package com.laidekuai.category.service;
 
 import com.laidekuai.category.dto.CategoryCreateRequest;
+import com.laidekuai.category.dto.CategoryTreeSnapshot;
 import com.laidekuai.category.dto.CategoryUpdateRequest;
 import com.laidekuai.category.entity.Category;
 import com.laidekuai.common.dto.Result;
@@ -21,6 +22,13 @@ public interface CategoryService {
      */
     Result<List<Category>> getCategoryTree();
 
+    /**
+     * 获取分类树快照（含 ETag，供公开接口做协商缓存）
+     *
+     * @return 分类树快照
+     */
+    CategoryTreeSnapshot getCategoryTreeSnapshot();
+
     /**
      * 获取分类详情
      *
@@ -29,6 +37,14 @@ public interface CategoryService {
      */
     Result<Category> getCategoryById(Long categoryId);
 
+    /**
+     * 获取分类路径（面包屑，从根到当前分类）
+     *
+     * @param categoryId 分类ID
+     * @return 祖先分类列表（含自身）
+     */
+    Result<List<Category>> getCategoryPath(Long categoryId);
+
     /**
      * 创建分类（管理员）
      *
@@ -2,6 +2,7 @@ package com.laidekuai.category.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.laidekuai.category.dto.CategoryCreateRequest;
+import com.laidekuai.category.dto.CategoryTreeSnapshot;
 import com.laidekuai.category.dto.CategoryUpdateRequest;
 import com.laidekuai.category.entity.Category;
 import com.laidekuai.category.mapper.CategoryMapper;
@@ -11,13 +12,25 @@ import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.enums.CategoryStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 分类服务实现
@@ -31,26 +44,34 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryMapper categoryMapper;
 
-    @Override
-    public Result<List<Category>> getCategoryTree() {
-        log.info("获取分类树");
-
-        // 1. 查询所有启用的分类
-        LambdaQueryWrapper<Category> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Category::getStatus, CategoryStatus.ENABLED);
-        wrapper.orderByAsc(Category::getSortOrder);
+    /**
+     * 当前分类树快照，读多写少，变更后整体替换
+     */
+    private final AtomicReference<CategoryTreeSnapshot> treeSnapshot = new AtomicReference<>();
 
-        List<Category> allCategories = categoryMapper.selectList(wrapper);
+    /**
+     * 构建当前快照时读到的分类树版本（category_version，分类写操作在同一事务内递增）
+     */
+    private final AtomicReference<Long> treeVersion = new AtomicReference<>();
 
-        // 2. 构建树形结构
-        List<Category> tree = buildTree(allCategories, null);
+    /**
+     * 重建串行化（不用 synchronized：持锁期间要查库，虚拟线程下会钉住载体线程）
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
 
-        log.info("分类树构建完成，根节点数: {}", tree.size());
+    @Override
+    public Result<List<Category>> getCategoryTree() {
+        return Result.success(getCategoryTreeSnapshot().getTree());
+    }
 
-        return Result.success(tree);
+    @Override
+    public CategoryTreeSnapshot getCategoryTreeSnapshot() {
+        CategoryTreeSnapshot snapshot = treeSnapshot.get();
+        return snapshot != null ? snapshot : refreshTree();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Result<Category> getCategoryById(Long categoryId) {
         log.info("获取分类详情，分类ID: {}", categoryId);
 
@@ -63,27 +84,145 @@ public class CategoryServiceImpl implements CategoryService {
         return Result.success(category);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Result<List<Category>> getCategoryPath(Long categoryId) {
+        Category category = categoryMapper.selectById(categoryId);
+        if (category == null) {
+            return Result.error(ErrorCode.CATEGORY_NOT_FOUND);
+        }
+        // 祖先 ID 直接取自物化路径（/1/2/5/），按主键批量查询，不做 LIKE 自连接
+        List<Long> ancestorIds = new ArrayList<>();
+        if (StringUtils.hasText(category.getPath())) {
+            for (String segment : category.getPath().split("/")) {
+                if (!segment.isEmpty() && !segment.equals(String.valueOf(categoryId))) {
+                    ancestorIds.add(Long.valueOf(segment));
+                }
+            }
+        }
+        List<Category> ancestors = new ArrayList<>();
+        if (!ancestorIds.isEmpty()) {
+            ancestors.addAll(categoryMapper.selectBatchIds(ancestorIds));
+        }
+        ancestors.add(category);
+        ancestors.sort(Comparator.comparing(Category::getLevel, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return Result.success(ancestors);
+    }
+
     /**
-     * 构建分类树
+     * 定时比对分类表版本：其他实例写入的变更只会使本实例快照失效，这里发现后重建
      *
-     * @param allCategories 所有分类
-     * @param parentId 父分类ID
-     * @return 子分类列表
+     * 快照尚未构建时不查库，留给首次读取时加载。
      */
-    private List<Category> buildTree(List<Category> allCategories, Long parentId) {
-        return allCategories.stream()
-                .filter(category -> {
-                    // 处理null的情况：一级分类的parentId为null
-                    if (parentId == null) {
-                        return category.getParentId() == null;
-                    }
-                    return parentId.equals(category.getParentId());
-                })
-                .peek(category -> {
-                    // 递归构建子分类
-                    category.setChildren(buildTree(allCategories, category.getId()));
-                })
-                .collect(Collectors.toList());
+    @Scheduled(fixedDelayString = "${app.category.tree-refresh-interval-ms:30000}")
+    public void refreshTreeIfChanged() {
+        if (treeSnapshot.get() == null) {
+            return;
+        }
+        Long version;
+        try {
+            version = categoryMapper.selectTreeVersion();
+        } catch (RuntimeException e) {
+            log.warn("查询分类表版本失败: {}", e.getMessage());
+            return;
+        }
+        if (!Objects.equals(version, treeVersion.get())) {
+            log.info("分类表版本变化，重建分类树: {} -> {}", treeVersion.get(), version);
+            refreshTree();
+        }
+    }
+
+    /**
+     * 从数据库重建分类树快照并整体替换（串行执行，最后一次重建读到的一定是最新数据）
+     */
+    private CategoryTreeSnapshot refreshTree() {
+        refreshLock.lock();
+        try {
+            // 先取版本再查数据：两者之间的写入会在下次版本比对时被发现
+            treeVersion.set(categoryMapper.selectTreeVersion());
+
+            // 1. 查询所有启用的分类
+            LambdaQueryWrapper<Category> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(Category::getStatus, CategoryStatus.ENABLED);
+            wrapper.orderByAsc(Category::getSortOrder);
+
+            List<Category> allCategories = categoryMapper.selectList(wrapper);
+
+            // 2. 构建树形结构
+            CategoryTreeSnapshot snapshot = buildSnapshot(allCategories);
+            treeSnapshot.set(snapshot);
+
+            log.info("分类树构建完成，根节点数: {}", snapshot.getTree().size());
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 分类变更后递增分类树版本（随本事务提交或回滚，其他实例据此发现变更），
+     * 并重建本实例快照：有事务时在提交后重建，避免读到未提交或已回滚的数据
+     */
+    private void refreshTreeAfterCommit() {
+        categoryMapper.incrementTreeVersion();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshTree();
+                }
+            });
+        } else {
+            refreshTree();
+        }
+    }
+
+    /**
+     * 构建分类树：先按 parentId 建索引，再从根节点展开，每个节点只访问一次（O(n)）
+     *
+     * 节点为新建副本，不修改查询结果中的实体。
+     *
+     * @param allCategories 所有分类（已按 sortOrder 排序）
+     * @return 分类树快照
+     */
+    private CategoryTreeSnapshot buildSnapshot(List<Category> allCategories) {
+        Map<Long, List<Category>> childrenIndex = new HashMap<>();
+        for (Category category : allCategories) {
+            childrenIndex.computeIfAbsent(category.getParentId(), key -> new ArrayList<>()).add(category);
+        }
+
+        StringBuilder digestSource = new StringBuilder();
+        List<Category> roots = buildNodes(childrenIndex, null, digestSource);
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(digestSource.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new CategoryTreeSnapshot(roots, etag);
+    }
+
+    private List<Category> buildNodes(Map<Long, List<Category>> childrenIndex, Long parentId, StringBuilder digestSource) {
+        List<Category> source = childrenIndex.get(parentId);
+        if (source == null) {
+            return Collections.emptyList();
+        }
+        List<Category> nodes = new ArrayList<>(source.size());
+        for (Category category : source) {
+            Category node = new Category();
+            node.setId(category.getId());
+            node.setName(category.getName());
+            node.setParentId(category.getParentId());
+            node.setLevel(category.getLevel());
+            node.setPath(category.getPath());
+            node.setSortOrder(category.getSortOrder());
+            node.setIconUrl(category.getIconUrl());
+            node.setStatus(category.getStatus());
+            node.setCreatedAt(category.getCreatedAt());
+            node.setUpdatedAt(category.getUpdatedAt());
+            node.setDeleted(category.getDeleted());
+            digestSource.append(node.getId()).append('|').append(node.getName()).append('|')
+                    .append(node.getParentId()).append('|').append(node.getSortOrder()).append('|')
+                    .append(node.getIconUrl()).append('|').append(node.getUpdatedAt()).append(';');
+            node.setChildren(buildNodes(childrenIndex, node.getId(), digestSource));
+            nodes.add(node);
+        }
+        return Collections.unmodifiableList(nodes);
     }
 
     @Override
@@ -101,8 +240,9 @@ public class CategoryServiceImpl implements CategoryService {
 
         // 2. 计算分类层级
         Integer level = 1;
+        Category parent = null;
         if (request.getParentId() != null) {
-            Category parent = categoryMapper.selectById(request.getParentId());
+            parent = categoryMapper.selectById(request.getParentId());
             if (parent == null) {
                 log.warn("父分类不存在: {}", request.getParentId());
                 return Result.error(ErrorCode.CATEGORY_NOT_FOUND);
@@ -127,8 +267,11 @@ public class CategoryServiceImpl implements CategoryService {
         category.setCreatedAt(LocalDateTime.now());
         category.setUpdatedAt(LocalDateTime.now());
 
-        // 5. 保存到数据库
+        // 5. 保存到数据库，再根据生成的ID补全物化路径
         categoryMapper.insert(category);
+        category.setPath((parent != null ? parent.getPath() : "/") + category.getId() + "/");
+        categoryMapper.updateById(category);
+        refreshTreeAfterCommit();
 
         log.info("分类创建成功，分类ID: {}, 名称: {}", category.getId(), category.getName());
 
@@ -148,6 +291,8 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         // 2. 如果修改了父分类，检查循环引用
+        String oldPath = null;
+        int levelDelta = 0;
         if (request.getParentId() != null && !request.getParentId().equals(existingCategory.getParentId())) {
             // 检查新父分类是否存在
             Category newParent = categoryMapper.selectById(request.getParentId());
@@ -156,21 +301,26 @@ public class CategoryServiceImpl implements CategoryService {
                 return Result.error(ErrorCode.CATEGORY_NOT_FOUND);
             }
 
-            // 检查循环引用
-            if (hasCircularReference(categoryId, request.getParentId())) {
+            // 检查循环引用：新父分类不能是自身或自身的后代
+            if (isSelfOrDescendant(categoryId, newParent)) {
                 log.warn("检测到循环引用，分类ID: {}, 新父分类ID: {}", categoryId, request.getParentId());
                 return Result.error(ErrorCode.CATEGORY_CIRCULAR_REF);
             }
 
-            // 检查层级限制
+            // 检查层级限制（整棵子树移动后都不能超过3级）
             Integer newLevel = newParent.getLevel() + 1;
-            if (newLevel > 3) {
-                log.warn("分类层级超过限制: {}", newLevel);
+            Integer subtreeMaxLevel = categoryMapper.selectMaxLevelByPathPrefix(existingCategory.getPath());
+            int subtreeDepth = subtreeMaxLevel != null ? subtreeMaxLevel - existingCategory.getLevel() : 0;
+            if (newLevel + subtreeDepth > 3) {
+                log.warn("分类层级超过限制: {}", newLevel + subtreeDepth);
                 return Result.error(ErrorCode.CATEGORY_LEVEL_EXCEEDED);
             }
 
+            oldPath = existingCategory.getPath();
+            levelDelta = newLevel - existingCategory.getLevel();
             existingCategory.setParentId(request.getParentId());
             existingCategory.setLevel(newLevel);
+            existingCategory.setPath(newParent.getPath() + categoryId + "/");
         }
 
         // 3. 更新其他字段
@@ -194,6 +344,11 @@ public class CategoryServiceImpl implements CategoryService {
 
         // 4. 保存到数据库
         categoryMapper.updateById(existingCategory);
+        if (oldPath != null) {
+            // 后代节点的路径前缀与层级随之调整
+            categoryMapper.moveDescendants(oldPath, existingCategory.getPath(), levelDelta);
+        }
+        refreshTreeAfterCommit();
 
         log.info("分类更新成功，分类ID: {}", categoryId);
 
@@ -230,6 +385,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         // 4. 软删除
         categoryMapper.deleteById(categoryId);
+        refreshTreeAfterCommit();
 
         log.info("分类删除成功，分类ID: {}", categoryId);
 
@@ -238,23 +394,22 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public boolean hasCircularReference(Long categoryId, Long newParentId) {
-        // 递归检查：从newParentId开始，看是否能回到categoryId
-        Long currentId = newParentId;
-        int maxDepth = 3; // 最大3级，防止无限循环
-
-        while (currentId != null && maxDepth-- > 0) {
-            if (currentId.equals(categoryId)) {
-                return true; // 发现循环引用
-            }
-
-            Category current = categoryMapper.selectById(currentId);
-            if (current == null) {
-                break;
-            }
-
-            currentId = current.getParentId();
+        if (newParentId == null) {
+            return false;
         }
+        return isSelfOrDescendant(categoryId, categoryMapper.selectById(newParentId));
+    }
 
-        return false;
+    /**
+     * 根据物化路径判断 candidate 是否为 categoryId 自身或其后代
+     */
+    private boolean isSelfOrDescendant(Long categoryId, Category candidate) {
+        if (candidate == null) {
+            return false;
+        }
+        if (categoryId.equals(candidate.getId())) {
+            return true;
+        }
+        return candidate.getPath() != null && candidate.getPath().contains("/" + categoryId + "/");
     }
 }
@@ -0,0 +1,28 @@
+package com.laidekuai.common.config;
+
+import com.laidekuai.common.dto.Result;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 管理端 SQL 画像查询（语句数最多的接口、最慢的语句）
+ */
+@RestController
+@RequestMapping("/admin/system/metrics")
+@RequiredArgsConstructor
+public class AdminSqlProfileController {
+
+    private final SqlProfilingFilter sqlProfilingFilter;
+
+    @GetMapping("/sql-profile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Map<String, Object>> sqlProfile(@RequestParam(defaultValue = "20") Integer limit) {
+        return Result.success(sqlProfilingFilter.snapshot(Math.min(Math.max(limit, 1), 100)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.laidekuai.common.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据库连接池指标
+ *
+ * 当前连接占用、等待连接的线程数，以及取连接等待耗时（hikaricp.connections.acquire）与超时次数，
+ * 用于判断下单高峰时请求是否在连接池上排队。
+ *
+ * @author Laidekuai Team
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolMetrics {
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+
+    private final MeterRegistry meterRegistry;
+
+    public List<Map<String, Object>> snapshot() {
+        return dataSources.orderedStream().map(this::snapshot).toList();
+    }
+
+    private Map<String, Object> snapshot(HikariDataSource dataSource) {
+        String poolName = dataSource.getPoolName();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pool", poolName);
+        result.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+        result.put("minimumIdle", dataSource.getMinimumIdle());
+        result.put("connectionTimeoutMs", dataSource.getConnectionTimeout());
+        result.put("leakDetectionThresholdMs", dataSource.getLeakDetectionThreshold());
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            result.put("active", pool.getActiveConnections());
+            result.put("idle", pool.getIdleConnections());
+            result.put("total", pool.getTotalConnections());
+            result.put("pending", pool.getThreadsAwaitingConnection());
+        }
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", poolName).timer();
+        if (acquire != null) {
+            result.put("acquireCount", acquire.count());
+            result.put("acquireMeanMs", acquire.mean(TimeUnit.MILLISECONDS));
+            result.put("acquireMaxMs", acquire.max(TimeUnit.MILLISECONDS));
+        }
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", poolName).counter();
+        if (timeouts != null) {
+            result.put("timeouts", (long) timeouts.count());
+        }
+        return result;
+    }
+}
@@ -32,6 +32,7 @@ public class CorsConfig {
 
         // 暴露响应头
         config.addExposedHeader("Authorization");
+        config.addExposedHeader(ReplicaRouting.STICKY_HEADER);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
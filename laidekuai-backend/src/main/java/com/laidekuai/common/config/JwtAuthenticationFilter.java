@@ -1,15 +1,18 @@
 package com.laidekuai.common.config;
 
 import com.laidekuai.common.dto.ErrorCode;
+import com.laidekuai.common.util.BoundedCache;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,23 +22,45 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Date;
 
 /**
  * JWT认证过滤器
  *
+ * 已验签的 token 按其 SHA-256 摘要缓存 (userId, role, 过期时间)，同一会话的后续请求
+ * 不再验签和反序列化 Claims；缓存有界（BoundedCache，无全局锁），条目在 token 过期后失效并被定期清理。
+ * 吊销检查（TokenRevocationStore）在缓存之外，每个请求都会执行。
+ *
  * @author Laidekuai Team
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationStore tokenRevocationStore;
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
+    private final int verifiedCacheMaxSize;
+
+    private final BoundedCache<String, VerifiedToken> verifiedTokens;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   TokenRevocationStore tokenRevocationStore,
+                                   @Value("${app.jwt.verified-cache.max-size:10000}") int verifiedCacheMaxSize) {
+        this.jwtUtil = jwtUtil;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.verifiedCacheMaxSize = verifiedCacheMaxSize;
+        this.verifiedTokens = new BoundedCache<>(verifiedCacheMaxSize);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -45,14 +70,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (token != null) {
             try {
-                var claims = jwtUtil.parseClaims(token);
-                if (claims.getExpiration().before(new java.util.Date())) {
+                VerifiedToken verified = verify(token);
+                if (verified == null) {
                     writeError(response, ErrorCode.TOKEN_EXPIRED);
                     return;
                 }
 
-                String role = claims.get("role", String.class);
-                Long userId = claims.get("userId", Long.class);
+                String role = verified.role();
+                Long userId = verified.userId();
+                if (tokenRevocationStore.isRevoked(userId, verified.issuedAt())) {
+                    writeError(response, ErrorCode.TOKEN_INVALID);
+                    return;
+                }
 
                 UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
@@ -80,6 +109,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 验证 token：先查已验签缓存，未命中再验签并回填；token 已过期返回 null
+     */
+    private VerifiedToken verify(String token) {
+        if (verifiedCacheMaxSize <= 0) {
+            return parse(token);
+        }
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = parse(token);
+        if (verified != null) {
+            verifiedTokens.put(key, verified, verified.expiresAt());
+        }
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = jwtUtil.parseClaims(token);
+        Date expiration = claims.getExpiration();
+        if (expiration.before(new Date())) {
+            return null;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return new VerifiedToken(claims.get("userId", Long.class), claims.get("role", String.class),
+                issuedAt != null ? issuedAt.getTime() : 0L, expiration.getTime());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private void writeError(HttpServletResponse response, ErrorCode code) throws IOException {
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType("application/json;charset=UTF-8");
@@ -102,4 +171,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         return null;
     }
+
+    private record VerifiedToken(Long userId, String role, long issuedAt, long expiresAt) {
+    }
 }
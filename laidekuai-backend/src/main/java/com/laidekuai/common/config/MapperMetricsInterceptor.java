@@ -0,0 +1,86 @@
+package com.laidekuai.common.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapper 语句指标
+ *
+ * 按语句 ID 记录耗时（mybatis.statement，带百分位直方图）与影响/返回行数（mybatis.statement.rows）。
+ *
+ * @author Laidekuai Team
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public MapperMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        String outcome = "success";
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            String type = ms.getSqlCommandType().name();
+            Timer.builder("mybatis.statement")
+                    .description("Mapper 语句耗时")
+                    .tag("statement", ms.getId())
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (result != null) {
+                DistributionSummary.builder("mybatis.statement.rows")
+                        .description("Mapper 语句返回/影响行数")
+                        .tag("statement", ms.getId())
+                        .tag("type", type)
+                        .register(meterRegistry)
+                        .record(rows(result));
+            }
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Number number) {
+            return number.intValue();
+        }
+        return 1;
+    }
+}
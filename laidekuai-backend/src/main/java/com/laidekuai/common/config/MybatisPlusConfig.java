@@ -3,6 +3,9 @@ package com.laidekuai.common.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.laidekuai.goods.mapper.GoodsStockCacheInterceptor;
+import com.laidekuai.goods.service.GoodsDetailCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,9 +13,20 @@ import org.springframework.context.annotation.Configuration;
 public class MybatisPlusConfig {
 
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(GoodsDetailCache goodsDetailCache) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
+        interceptor.addInnerInterceptor(new GoodsStockCacheInterceptor(goodsDetailCache));
         return interceptor;
     }
+
+    @Bean
+    public MapperMetricsInterceptor mapperMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new MapperMetricsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    public SqlProfilingInterceptor sqlProfilingInterceptor(SqlProfilingFilter sqlProfilingFilter) {
+        return new SqlProfilingInterceptor(sqlProfilingFilter);
+    }
 }
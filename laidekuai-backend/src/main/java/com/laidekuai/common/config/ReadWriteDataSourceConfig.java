@@ -0,0 +1,82 @@
+package com.laidekuai.common.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离数据源（app.datasource.replica.enabled=true 时启用）
+ *
+ * 主库沿用 spring.datasource 配置，从库使用 app.datasource.replica 配置，
+ * 对外暴露的 DataSource 为 LazyConnectionDataSourceProxy(ReadWriteRoutingDataSource)。
+ *
+ * @author Laidekuai Team
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+        dataSource.setPassword(StringUtils.hasText(password) ? password : properties.determinePassword());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(@Value("${app.datasource.replica.sticky-ms:5000}") long stickyMillis) {
+        return new ReplicaRouting(stickyMillis);
+    }
+
+    @Bean
+    public ReplicaStickinessInterceptor replicaStickinessInterceptor(ReplicaRouting replicaRouting) {
+        return new ReplicaStickinessInterceptor(replicaRouting);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRouting replicaRouting) {
+        return registry -> {
+            for (String route : new String[]{"replicaRoutes", "primaryRoutes", "stickyRoutes"}) {
+                Gauge.builder("datasource.routing", replicaRouting,
+                                r -> ((Number) r.snapshot().get(route)).doubleValue())
+                        .tag("route", route)
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaRouting replicaRouting) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaRouting));
+    }
+}
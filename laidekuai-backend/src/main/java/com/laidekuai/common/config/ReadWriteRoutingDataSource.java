@@ -0,0 +1,33 @@
+package com.laidekuai.common.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 主从路由数据源（外层需包 LazyConnectionDataSourceProxy，事务开始后首条语句执行时才取连接，
+ * 此时只读标记已经设置）
+ *
+ * @author Laidekuai Team
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    static final String REPLICA = "replica";
+
+    private final ReplicaRouting replicaRouting;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaRouting replicaRouting) {
+        this.replicaRouting = replicaRouting;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaRouting.useReplica() ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,146 @@
+package com.laidekuai.common.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读写分离路由决策
+ *
+ * 只读事务（@Transactional(readOnly = true)）走从库，其余走主库。
+ * 请求中执行写操作后，在响应中下发“主库读截止时间”（Cookie 与响应头各一份），客户端随后的请求带回该时间，
+ * 截止前的只读事务仍走主库，保证读到自己刚写入的数据（从库复制有延迟）。
+ * 截止时间由客户端携带，请求落到任意实例都能生效；超过 sticky-ms 上限的值视为无效，避免伪造长期占用主库。
+ *
+ * @author Laidekuai Team
+ */
+public class ReplicaRouting {
+
+    /**
+     * 主库读截止时间（毫秒时间戳）的 Cookie 名称
+     */
+    public static final String STICKY_COOKIE = "ldk_primary_until";
+
+    /**
+     * 主库读截止时间的请求/响应头（Cookie 不可用的跨域客户端回传此头）
+     */
+    public static final String STICKY_HEADER = "X-Primary-Read-Until";
+
+    private static final String REQUEST_ATTRIBUTE = ReplicaRouting.class.getName() + ".until";
+
+    private final long stickyMillis;
+
+    private final AtomicLong replicaRoutes = new AtomicLong(0);
+    private final AtomicLong primaryRoutes = new AtomicLong(0);
+    private final AtomicLong stickyRoutes = new AtomicLong(0);
+    private final AtomicLong stickyMarks = new AtomicLong(0);
+
+    public ReplicaRouting(long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    /**
+     * 当前连接是否应取自从库
+     */
+    public boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.incrementAndGet();
+            return false;
+        }
+        if (isSticky(currentRequest())) {
+            stickyRoutes.incrementAndGet();
+            return false;
+        }
+        replicaRoutes.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 当前请求执行了写操作：下发主库读截止时间（同一请求只下发一次）
+     */
+    public void markWrite() {
+        if (stickyMillis <= 0 || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(REQUEST_ATTRIBUTE) != null) {
+            return;
+        }
+        long until = System.currentTimeMillis() + stickyMillis;
+        request.setAttribute(REQUEST_ATTRIBUTE, until);
+        stickyMarks.incrementAndGet();
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(STICKY_COOKIE, String.valueOf(until));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(stickyMillis + 999)));
+        cookie.setAttribute("SameSite", "Lax");
+        response.addCookie(cookie);
+        response.setHeader(STICKY_HEADER, String.valueOf(until));
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("stickyMillis", stickyMillis);
+        result.put("stickyMarks", stickyMarks.get());
+        result.put("replicaRoutes", replicaRoutes.get());
+        result.put("primaryRoutes", primaryRoutes.get());
+        result.put("stickyRoutes", stickyRoutes.get());
+        return result;
+    }
+
+    private boolean isSticky(HttpServletRequest request) {
+        if (request == null || stickyMillis <= 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (request.getAttribute(REQUEST_ATTRIBUTE) instanceof Long until && until > now) {
+            return true;
+        }
+        if (isValid(request.getHeader(STICKY_HEADER), now)) {
+            return true;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (STICKY_COOKIE.equals(cookie.getName()) && isValid(cookie.getValue(), now)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 截止时间未过期，且不超过 now + stickyMillis（容许 1 秒实例间时钟偏差）
+     */
+    private boolean isValid(String value, long now) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        try {
+            long until = Long.parseLong(value.trim());
+            return until > now && until <= now + stickyMillis + 1000;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+}
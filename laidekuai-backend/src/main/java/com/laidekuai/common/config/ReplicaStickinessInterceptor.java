@@ -0,0 +1,33 @@
+package com.laidekuai.common.config;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+/**
+ * 写语句执行后标记当前请求，下发主库读截止时间，使该客户端随后的只读事务走主库（读己之写）
+ *
+ * @author Laidekuai Team
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class ReplicaStickinessInterceptor implements Interceptor {
+
+    private final ReplicaRouting replicaRouting;
+
+    public ReplicaStickinessInterceptor(ReplicaRouting replicaRouting) {
+        this.replicaRouting = replicaRouting;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        replicaRouting.markWrite();
+        return result;
+    }
+}
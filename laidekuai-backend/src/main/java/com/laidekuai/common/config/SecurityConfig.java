@@ -1,8 +1,10 @@
 package com.laidekuai.common.config;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -28,6 +30,7 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CustomUserDetailsService userDetailsService;
     private final RestAuthenticationEntryPoint authenticationEntryPoint;
+    private final Environment environment;
 
     /**
      * 密码编码器
@@ -73,9 +76,14 @@ public class SecurityConfig {
                     "/categories",
                     "/categories/**",
                     "/notices",
-                    "/notices/**"
+                    "/notices/**",
+                    "/actuator/health"
                 ).permitAll()
 
+                // 指标只在内部管理端口匿名开放，业务端口上仍需认证
+                .requestMatchers(request -> "/actuator/prometheus".equals(request.getServletPath())
+                        && isManagementPort(request)).permitAll()
+
                 // 其他所有请求需要认证
                 .anyRequest().authenticated()
             )
@@ -87,4 +95,14 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    /**
+     * 请求是否来自独立的管理端口（management.server.port，启动后由 local.management.port 给出实际端口）
+     */
+    private boolean isManagementPort(HttpServletRequest request) {
+        Integer managementPort = environment.getProperty("local.management.port", Integer.class);
+        Integer serverPort = environment.getProperty("local.server.port", Integer.class);
+        return managementPort != null && !managementPort.equals(serverPort)
+                && managementPort == request.getLocalPort();
+    }
 }
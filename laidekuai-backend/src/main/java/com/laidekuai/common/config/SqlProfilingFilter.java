@@ -0,0 +1,239 @@
+package com.laidekuai.common.config;
+
+import com.laidekuai.common.util.BoundedCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 请求级 SQL 画像：慢语句与 N+1 检测
+ *
+ * 每个请求统计执行的 Mapper 语句数与耗时（由 SqlProfilingInterceptor 上报），
+ * 单个请求语句数超过 app.sql-profile.max-statements-per-request 时按 requestId 记录告警日志（疑似 N+1），
+ * 单条语句超过 app.sql-profile.slow-statement-ms 时记录慢语句日志。
+ * 按接口路径（有界 BoundedCache）、语句 ID 汇总，供管理端查看最严重的接口与语句。
+ * 语句统计在每条 SQL 上执行，用 ConcurrentHashMap + LongAdder/LongAccumulator 无锁累加；
+ * 语句 ID 即 MappedStatement ID，数量由 Mapper 定义决定，不需要淘汰。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SqlProfilingFilter extends OncePerRequestFilter {
+
+    private static final String MDC_KEY = "requestId";
+
+    private static final int MAX_TRACKED = 500;
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    @Value("${app.sql-profile.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.sql-profile.max-statements-per-request:20}")
+    private int maxStatementsPerRequest = 20;
+
+    @Value("${app.sql-profile.slow-statement-ms:500}")
+    private long slowStatementMs = 500;
+
+    private final BoundedCache<String, EndpointStats> endpoints = new BoundedCache<>(MAX_TRACKED);
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+            finish(request, profile);
+        }
+    }
+
+    /**
+     * 记录一次语句执行（任意线程；不在请求内时只参与慢语句统计）
+     */
+    public void record(String statementId, long durationNanos) {
+        if (!enabled) {
+            return;
+        }
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        boolean slow = durationMs >= slowStatementMs;
+        if (slow) {
+            log.warn("慢SQL: {} 耗时 {}ms, requestId: {}", statementId, durationMs, MDC.get(MDC_KEY));
+        }
+        StatementStats stats = statements.get(statementId);
+        if (stats == null) {
+            stats = statements.computeIfAbsent(statementId, id -> new StatementStats());
+        }
+        stats.add(durationNanos, slow);
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.add(statementId, durationNanos);
+        }
+    }
+
+    /**
+     * 语句数最多的接口、最慢的语句（各取前 limit 个）
+     */
+    public Map<String, Object> snapshot(int limit) {
+        List<Map<String, Object>> topEndpoints = top(endpoints, limit,
+                Comparator.comparingInt((Map.Entry<String, EndpointStats> e) -> e.getValue().maxStatements).reversed(),
+                e -> e.getValue().toMap(e.getKey()));
+        List<Map<String, Object>> topStatements = statements.entrySet().stream()
+                .map(e -> e.getValue().toMap(e.getKey()))
+                .sorted(Comparator.comparingLong((Map<String, Object> m) -> (Long) m.get("maxMs")).reversed())
+                .limit(limit)
+                .toList();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("maxStatementsPerRequest", maxStatementsPerRequest);
+        result.put("slowStatementMs", slowStatementMs);
+        result.put("endpoints", topEndpoints);
+        result.put("statements", topStatements);
+        return result;
+    }
+
+    private void finish(HttpServletRequest request, RequestProfile profile) {
+        if (profile.count == 0) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + endpointPattern(request);
+        String requestId = MDC.get(MDC_KEY);
+        boolean exceeded = profile.count > maxStatementsPerRequest;
+        if (exceeded) {
+            log.warn("疑似 N+1: {} 执行 {} 条语句, 耗时 {}ms, requestId: {}, 语句分布: {}",
+                    endpoint, profile.count, TimeUnit.NANOSECONDS.toMillis(profile.totalNanos), requestId,
+                    profile.topStatements(5));
+        }
+        endpoints.compute(endpoint, (key, stats) -> stats != null ? stats : new EndpointStats())
+                .add(profile, exceeded, requestId);
+    }
+
+    private static String endpointPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private static <V> List<Map<String, Object>> top(BoundedCache<String, V> stats, int limit,
+                                                     Comparator<Map.Entry<String, V>> order,
+                                                     Function<Map.Entry<String, V>, Map<String, Object>> mapper) {
+        List<Map.Entry<String, V>> entries = new ArrayList<>();
+        stats.forEach((key, value) -> entries.add(Map.entry(key, value)));
+        return entries.stream().sorted(order).limit(limit).map(mapper).toList();
+    }
+
+    private static final class RequestProfile {
+
+        private int count;
+
+        private long totalNanos;
+
+        private final Map<String, Integer> perStatement = new HashMap<>();
+
+        void add(String statementId, long durationNanos) {
+            count++;
+            totalNanos += durationNanos;
+            perStatement.merge(statementId, 1, Integer::sum);
+        }
+
+        List<String> topStatements(int limit) {
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(perStatement.entrySet());
+            entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+            return entries.stream().limit(limit).map(e -> e.getKey() + "x" + e.getValue()).toList();
+        }
+    }
+
+    private static final class EndpointStats {
+
+        private long requests;
+        private long totalStatements;
+        private volatile int maxStatements;
+        private long exceeded;
+        private String worstRequestId;
+        private List<String> worstStatements;
+
+        synchronized void add(RequestProfile profile, boolean overLimit, String requestId) {
+            requests++;
+            totalStatements += profile.count;
+            if (overLimit) {
+                exceeded++;
+            }
+            if (profile.count > maxStatements) {
+                maxStatements = profile.count;
+                worstRequestId = requestId;
+                worstStatements = profile.topStatements(5);
+            }
+        }
+
+        synchronized Map<String, Object> toMap(String endpoint) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("endpoint", endpoint);
+            result.put("requests", requests);
+            result.put("avgStatements", requests == 0 ? 0.0 : (double) totalStatements / requests);
+            result.put("maxStatements", maxStatements);
+            result.put("exceeded", exceeded);
+            result.put("worstRequestId", worstRequestId);
+            result.put("worstStatements", worstStatements);
+            return result;
+        }
+    }
+
+    private static final class StatementStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder slow = new LongAdder();
+
+        void add(long durationNanos, boolean isSlow) {
+            count.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+            if (isSlow) {
+                slow.increment();
+            }
+        }
+
+        Map<String, Object> toMap(String statementId) {
+            long countValue = count.sum();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("statement", statementId);
+            result.put("count", countValue);
+            result.put("avgMs", countValue == 0 ? 0.0 : (double) totalNanos.sum() / countValue / 1_000_000);
+            result.put("maxMs", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            result.put("slow", slow.sum());
+            return result;
+        }
+    }
+}
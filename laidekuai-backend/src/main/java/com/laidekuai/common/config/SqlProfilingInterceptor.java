@@ -0,0 +1,48 @@
+package com.laidekuai.common.config;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 语句耗时上报（供 SqlProfilingFilter 做请求级慢 SQL / N+1 统计）
+ *
+ * InnerInterceptor 只有执行前回调，无法得到语句耗时，因此与 MapperMetricsInterceptor 一样拦截 Executor。
+ *
+ * @author Laidekuai Team
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class})
+})
+public class SqlProfilingInterceptor implements Interceptor {
+
+    private final SqlProfilingFilter profiler;
+
+    public SqlProfilingInterceptor(SqlProfilingFilter profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            profiler.record(ms.getId(), System.nanoTime() - start);
+        }
+    }
+}
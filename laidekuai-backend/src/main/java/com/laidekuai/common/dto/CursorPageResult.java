@@ -0,0 +1,52 @@
+package com.laidekuai.common.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果（不统计总数）
+ *
+ * @param <T> 数据类型
+ * @author Laidekuai Team
+ */
+@Data
+public class CursorPageResult<T> {
+
+    /**
+     * 数据列表
+     */
+    private List<T> records;
+
+    /**
+     * 每页大小
+     */
+    private Long size;
+
+    /**
+     * 下一页游标（没有更多数据时为空）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private Boolean hasMore;
+
+    public CursorPageResult() {
+    }
+
+    public CursorPageResult(List<T> records, Long size, String nextCursor) {
+        this.records = records;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    /**
+     * 构建游标分页结果
+     */
+    public static <T> CursorPageResult<T> of(List<T> records, Long size, String nextCursor) {
+        return new CursorPageResult<>(records, size, nextCursor);
+    }
+}
@@ -21,6 +21,7 @@ public enum ErrorCode {
     NOT_FOUND(40401, "资源不存在"),
     INTERNAL_ERROR(50001, "系统内部错误"),
     CONFLICT(40901, "操作冲突，请刷新后重试"),
+    TOO_MANY_REQUESTS(42901, "系统繁忙，请稍后重试"),
 
     // ========== 用户相关 (401xx) ==========
     USER_NOT_FOUND(40401, "用户不存在"),
@@ -29,6 +30,7 @@ public enum ErrorCode {
     USER_DISABLED(40301, "用户已被禁用"),
     TOKEN_EXPIRED(40101, "Token已过期"),
     TOKEN_INVALID(40101, "Token无效"),
+    LOGIN_THROTTLED(42901, "登录失败次数过多，请稍后再试"),
 
     // ========== 商品相关 (402xx) ==========
     GOODS_NOT_FOUND(40401, "商品不存在"),
@@ -34,6 +34,16 @@ public class GlobalExceptionHandler {
         return Result.error(e.getCode(), e.getMessage());
     }
 
+    /**
+     * 请求过多（登录限流、密码校验线程池已满）
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public Result<Void> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.warn("请求过多: {}", e.getMessage());
+        return Result.error(e.getCode(), e.getMessage());
+    }
+
     /**
      * 参数校验异常（RequestBody）
      */
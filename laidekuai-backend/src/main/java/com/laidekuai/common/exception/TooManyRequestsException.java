@@ -0,0 +1,17 @@
+package com.laidekuai.common.exception;
+
+import com.laidekuai.common.dto.ErrorCode;
+
+/**
+ * 请求过多（返回 HTTP 429）
+ *
+ * @author Laidekuai Team
+ */
+public class TooManyRequestsException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
@@ -1,5 +1,6 @@
 package com.laidekuai.common.scheduler;
 
+import com.laidekuai.common.config.ConnectionPoolMetrics;
 import com.laidekuai.common.dto.Result;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -7,6 +8,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,10 +20,24 @@ import java.util.Map;
 public class AdminSchedulerMetricsController {
 
     private final SchedulerMetrics schedulerMetrics;
+    private final OrderExpiryQueue orderExpiryQueue;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
 
     @GetMapping("/scheduler")
     @PreAuthorize("hasRole('ADMIN')")
     public Result<Map<String, Object>> schedulerMetrics() {
         return Result.success(schedulerMetrics.snapshot());
     }
+
+    @GetMapping("/scheduler/order-expiry")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Map<String, Object>> orderExpiryMetrics() {
+        return Result.success(orderExpiryQueue.snapshot());
+    }
+
+    @GetMapping("/connection-pool")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<List<Map<String, Object>>> connectionPoolMetrics() {
+        return Result.success(connectionPoolMetrics.snapshot());
+    }
 }
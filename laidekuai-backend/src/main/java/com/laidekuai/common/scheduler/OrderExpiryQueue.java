@@ -0,0 +1,271 @@
+package com.laidekuai.common.scheduler;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.laidekuai.order.entity.Order;
+import com.laidekuai.order.mapper.OrderMapper;
+import com.laidekuai.order.service.OrderService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 待支付订单到期队列（DelayQueue）
+ *
+ * 下单提交后按 created_at + 超时时间入队，启动时从 orders 重建；
+ * 到期后由单个工作线程批量调用 cancelOrdersSystemBatch，取消时间接近精确截止时间；
+ * 批量取消跳过的订单（最近一分钟内有更新，如支付处理中）若仍待支付，延后 retry-delay-seconds 重新入队。
+ * OrderScheduler 的 cron 扫描仍保留，作为低频兜底（多实例、重启间隙、取消失败）。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+public class OrderExpiryQueue {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final OrderMapper orderMapper;
+
+    private final ObjectProvider<OrderService> orderServiceProvider;
+
+    private final boolean enabled;
+
+    private final int timeoutMinutes;
+
+    private final int batchSize;
+
+    private final long retryDelayMillis;
+
+    private final DelayQueue<Expiry> queue = new DelayQueue<>();
+
+    private final AtomicLong scheduled = new AtomicLong(0);
+    private final AtomicLong fired = new AtomicLong(0);
+    private final AtomicLong canceled = new AtomicLong(0);
+    private final AtomicLong rescheduled = new AtomicLong(0);
+    private final AtomicLong failures = new AtomicLong(0);
+
+    private volatile Thread worker;
+
+    public OrderExpiryQueue(OrderMapper orderMapper,
+                            ObjectProvider<OrderService> orderServiceProvider,
+                            @Value("${app.order.expiry-queue.enabled:false}") boolean enabled,
+                            @Value("${app.order.timeout-minutes:15}") int timeoutMinutes,
+                            @Value("${app.order.expiry-queue.batch-size:200}") int batchSize,
+                            @Value("${app.order.expiry-queue.retry-delay-seconds:60}") long retryDelaySeconds) {
+        this.orderMapper = orderMapper;
+        this.orderServiceProvider = orderServiceProvider;
+        this.enabled = enabled;
+        this.timeoutMinutes = timeoutMinutes;
+        this.batchSize = Math.max(batchSize, 1);
+        this.retryDelayMillis = TimeUnit.SECONDS.toMillis(Math.max(retryDelaySeconds, 1));
+    }
+
+    /**
+     * 登记新订单的到期时间；处于事务中时在提交后才入队
+     */
+    public void schedule(Long orderId, LocalDateTime createdAt) {
+        if (!enabled || orderId == null || createdAt == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(orderId, createdAt);
+                }
+            });
+        } else {
+            enqueue(orderId, createdAt);
+        }
+    }
+
+    /**
+     * 启动时从 orders 重建队列并启动工作线程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || worker != null) {
+            return;
+        }
+        int loaded;
+        try {
+            loaded = rebuild();
+        } catch (RuntimeException e) {
+            // 重建失败不影响启动，遗漏的订单由 cron 兜底扫描取消
+            log.error("订单到期队列重建失败", e);
+            loaded = queue.size();
+        }
+        Thread thread = new Thread(this::runLoop, "order-expiry");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+        log.info("订单到期队列已启动, 重建待支付订单 {} 笔", loaded);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * 队列中等待到期的订单数
+     */
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 到期后取消的订单数（累计）
+     */
+    public long canceledCount() {
+        return canceled.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("pending", queue.size());
+        result.put("scheduled", scheduled.get());
+        result.put("fired", fired.get());
+        result.put("canceled", canceled.get());
+        result.put("rescheduled", rescheduled.get());
+        result.put("failures", failures.get());
+        return result;
+    }
+
+    int rebuild() {
+        int loaded = 0;
+        Long lastId = 0L;
+        while (true) {
+            QueryWrapper<Order> wrapper = new QueryWrapper<>();
+            wrapper.select("id", "created_at")
+                   .eq("status", "PENDING_PAY")
+                   .eq("deleted", 0)
+                   .gt("id", lastId)
+                   .orderByAsc("id")
+                   .last("LIMIT " + REBUILD_PAGE_SIZE);
+            List<Order> orders = orderMapper.selectList(wrapper);
+            for (Order order : orders) {
+                enqueue(order.getId(), order.getCreatedAt());
+                lastId = order.getId();
+            }
+            loaded += orders.size();
+            if (orders.size() < REBUILD_PAGE_SIZE) {
+                return loaded;
+            }
+        }
+    }
+
+    /**
+     * 取出已到期的订单（阻塞直到至少一笔到期），同一时刻到期的一并取出
+     */
+    List<Long> takeExpired() throws InterruptedException {
+        List<Expiry> expired = new ArrayList<>();
+        expired.add(queue.take());
+        queue.drainTo(expired, batchSize - 1);
+        return expired.stream().map(Expiry::orderId).toList();
+    }
+
+    void cancelExpired(List<Long> orderIds) {
+        fired.addAndGet(orderIds.size());
+        int batchCanceled;
+        try {
+            batchCanceled = orderServiceProvider.getObject().cancelOrdersSystemBatch(orderIds);
+        } catch (Exception e) {
+            // 失败的订单留给 cron 兜底扫描
+            failures.incrementAndGet();
+            log.error("到期订单取消失败, 订单: {}", orderIds, e);
+            return;
+        }
+        canceled.addAndGet(batchCanceled);
+        if (batchCanceled < orderIds.size()) {
+            rescheduleSkipped(orderIds);
+        }
+    }
+
+    /**
+     * 未被取消的订单中仍待支付的延后重新入队；已支付、已取消的订单不再入队
+     */
+    private void rescheduleSkipped(List<Long> orderIds) {
+        List<Order> pending;
+        try {
+            QueryWrapper<Order> wrapper = new QueryWrapper<>();
+            wrapper.select("id")
+                   .in("id", orderIds)
+                   .eq("status", "PENDING_PAY")
+                   .eq("deleted", 0);
+            pending = orderMapper.selectList(wrapper);
+        } catch (RuntimeException e) {
+            // 查询失败的订单留给 cron 兜底扫描
+            failures.incrementAndGet();
+            log.error("查询跳过的到期订单失败, 订单: {}", orderIds, e);
+            return;
+        }
+        long deadline = System.currentTimeMillis() + retryDelayMillis;
+        for (Order order : pending) {
+            queue.put(new Expiry(order.getId(), deadline));
+            rescheduled.incrementAndGet();
+        }
+        if (!pending.isEmpty()) {
+            log.info("到期订单 {} 笔近期有更新未取消, {} 秒后重试", pending.size(),
+                    TimeUnit.MILLISECONDS.toSeconds(retryDelayMillis));
+        }
+    }
+
+    private void runLoop() {
+        while (worker == Thread.currentThread()) {
+            try {
+                cancelExpired(takeExpired());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void enqueue(Long orderId, LocalDateTime createdAt) {
+        if (orderId == null || createdAt == null) {
+            return;
+        }
+        long deadline = createdAt.plusMinutes(timeoutMinutes)
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+        queue.put(new Expiry(orderId, deadline));
+        scheduled.incrementAndGet();
+    }
+
+    private record Expiry(Long orderId, long deadlineMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineMillis, ((Expiry) other).deadlineMillis);
+        }
+    }
+}
@@ -33,22 +33,34 @@ public class OrderScheduler {
     private Integer timeoutMinutes;
 
     /**
-     * 每分钟检查一次超时未支付订单
+     * 批量取消模式：按块批量改状态、合并释放库存，循环直到积压清空
      */
-    @Scheduled(cron = "0 0/1 * * * ?")
+    @Value("${app.order.timeout-cancel.batch-enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${app.order.timeout-cancel.batch-size:500}")
+    private int batchSize = 500;
+
+    /**
+     * 单次运行最多处理的块数，防止一次运行长时间占用调度线程
+     */
+    @Value("${app.order.timeout-cancel.max-batches-per-run:100}")
+    private int maxBatchesPerRun = 100;
+
+    /**
+     * 检查超时未支付订单（默认每分钟；启用 OrderExpiryQueue 时作为低频兜底扫描）
+     */
+    @Scheduled(cron = "${app.order.timeout-cancel.cron:0 0/1 * * * ?}")
     public void cancelTimeoutOrders() {
+        if (batchEnabled) {
+            cancelTimeoutOrdersInBatches();
+            return;
+        }
+
         long startMs = System.currentTimeMillis();
         log.debug("开始检查超时订单...");
 
-        QueryWrapper<Order> wrapper = new QueryWrapper<>();
-        wrapper.eq("status", "PENDING_PAY")
-               .eq("deleted", 0)
-               .apply("created_at <= DATE_SUB(NOW(), INTERVAL {0} MINUTE)", timeoutMinutes)
-               .apply("updated_at <= DATE_SUB(NOW(), INTERVAL 1 MINUTE)")
-               .orderByAsc("created_at")
-               .last("LIMIT " + SCAN_LIMIT);
-
-        List<Order> timeoutOrders = orderMapper.selectList(wrapper);
+        List<Order> timeoutOrders = orderMapper.selectList(timeoutOrderQuery(SCAN_LIMIT));
 
         int canceledCount = 0;
         for (Order order : timeoutOrders) {
@@ -74,4 +86,51 @@ public class OrderScheduler {
         schedulerMetrics.recordRun(timeoutOrders.size(), canceledCount, durationMs);
         log.info("超时订单扫描 {} 条，成功取消 {} 条，耗时 {}ms", timeoutOrders.size(), canceledCount, durationMs);
     }
+
+    private void cancelTimeoutOrdersInBatches() {
+        long startMs = System.currentTimeMillis();
+        int scanned = 0;
+        int canceled = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            QueryWrapper<Order> wrapper = timeoutOrderQuery(batchSize);
+            wrapper.select("id");
+            List<Long> orderIds = orderMapper.selectList(wrapper).stream()
+                    .map(Order::getId)
+                    .toList();
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            scanned += orderIds.size();
+
+            int batchCanceled;
+            try {
+                batchCanceled = orderService.cancelOrdersSystemBatch(orderIds);
+            } catch (Exception e) {
+                log.error("批量取消超时订单失败, 订单: {}", orderIds, e);
+                break;
+            }
+            canceled += batchCanceled;
+
+            // 不足一块说明已清空；一块里一笔都没取消说明剩下的都被并发修改，留给下次运行
+            if (orderIds.size() < batchSize || batchCanceled == 0) {
+                break;
+            }
+        }
+
+        long durationMs = System.currentTimeMillis() - startMs;
+        schedulerMetrics.recordRun(scanned, canceled, durationMs);
+        log.info("超时订单批量扫描 {} 条，成功取消 {} 条，耗时 {}ms", scanned, canceled, durationMs);
+    }
+
+    private QueryWrapper<Order> timeoutOrderQuery(int limit) {
+        QueryWrapper<Order> wrapper = new QueryWrapper<>();
+        wrapper.eq("status", "PENDING_PAY")
+               .eq("deleted", 0)
+               .apply("created_at <= DATE_SUB(NOW(), INTERVAL {0} MINUTE)", timeoutMinutes)
+               .apply("updated_at <= DATE_SUB(NOW(), INTERVAL 1 MINUTE)")
+               .orderByAsc("created_at")
+               .last("LIMIT " + limit);
+        return wrapper;
+    }
 }
@@ -1,19 +1,27 @@
 package com.laidekuai.common.scheduler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * 调度任务运行指标（内存态）
+ * 调度任务运行指标（内存态，同时上报 Micrometer）
  */
 @Component
 public class SchedulerMetrics {
 
+    private final Timer runTimer;
+    private final Counter scannedCounter;
+    private final Counter canceledCounter;
+
     private final AtomicLong totalRuns = new AtomicLong(0);
     private final AtomicLong totalScanned = new AtomicLong(0);
     private final AtomicLong totalCanceled = new AtomicLong(0);
@@ -30,7 +38,23 @@ public class SchedulerMetrics {
     @Getter
     private volatile int lastCanceled;
 
+    public SchedulerMetrics(MeterRegistry meterRegistry) {
+        this.runTimer = Timer.builder("scheduler.order.timeout")
+                .description("超时订单扫描耗时")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.scannedCounter = Counter.builder("scheduler.order.timeout.scanned")
+                .description("超时订单扫描数")
+                .register(meterRegistry);
+        this.canceledCounter = Counter.builder("scheduler.order.timeout.canceled")
+                .description("超时订单取消数")
+                .register(meterRegistry);
+    }
+
     public void recordRun(int scanned, int canceled, long durationMs) {
+        runTimer.record(durationMs, TimeUnit.MILLISECONDS);
+        scannedCounter.increment(scanned);
+        canceledCounter.increment(canceled);
         totalRuns.incrementAndGet();
         totalScanned.addAndGet(scanned);
         totalCanceled.addAndGet(canceled);
@@ -0,0 +1,241 @@
+package com.laidekuai.common.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程内有界缓存（ConcurrentHashMap + 近似 LRU 淘汰 + 过期清理）
+ *
+ * 读写不加全局锁：读只刷新条目的访问序号；写入后条目数超过上限时，由抢到清理锁的线程
+ * 先清掉过期条目，再按访问序号淘汰最久未访问的条目（多淘汰 maxSize/16 个作为余量，摊薄排序开销），
+ * 其它线程不等待，条目数可能短暂超过上限。
+ * 条目可带过期时间，读到过期条目时移除；写入时最多每分钟清理一次全部过期条目，不再访问的条目也会被回收。
+ * maxSize <= 0 时不缓存任何条目。
+ *
+ * @author Laidekuai Team
+ */
+public final class BoundedCache<K, V> {
+
+    private static final long EXPIRY_SWEEP_INTERVAL_MS = 60_000;
+
+    private final int maxSize;
+
+    /**
+     * 写入后过期时间（毫秒），<= 0 表示不过期
+     */
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    private final Map<K, Node<V>> map = new ConcurrentHashMap<>();
+
+    private final AtomicLong accessSeq = new AtomicLong(0);
+
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    private volatile long lastExpirySweep;
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        this(maxSize, 0, System::currentTimeMillis);
+    }
+
+    public BoundedCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.lastExpirySweep = clock.getAsLong();
+    }
+
+    /**
+     * 读取，不存在或已过期返回 null
+     */
+    public V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (node.isExpired(clock.getAsLong())) {
+            if (map.remove(key, node)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        node.lastAccess = accessSeq.incrementAndGet();
+        return node.value;
+    }
+
+    /**
+     * 写入，按构造时的 ttl 过期
+     */
+    public void put(K key, V value) {
+        put(key, value, defaultExpiresAt(clock.getAsLong()));
+    }
+
+    /**
+     * 写入，在 expiresAt（与 clock 同一时基的毫秒）过期
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (maxSize <= 0) {
+            return;
+        }
+        map.put(key, new Node<>(value, expiresAt, accessSeq.incrementAndGet()));
+        afterWrite();
+    }
+
+    /**
+     * 原子地重新计算一个键的值（同一键的 compute/remove 串行执行）
+     *
+     * 已过期的条目按不存在传入；函数返回 null 时移除条目；返回原值时保留原过期时间，否则按 ttl 重新计时。
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> function) {
+        if (maxSize <= 0) {
+            return function.apply(key, null);
+        }
+        long now = clock.getAsLong();
+        Node<V> node = map.compute(key, (k, old) -> {
+            V current = null;
+            if (old != null) {
+                if (old.isExpired(now)) {
+                    expirations.increment();
+                } else {
+                    current = old.value;
+                }
+            }
+            V updated = function.apply(k, current);
+            if (updated == null) {
+                return null;
+            }
+            if (current != null && updated == current) {
+                old.lastAccess = accessSeq.incrementAndGet();
+                return old;
+            }
+            return new Node<>(updated, defaultExpiresAt(now), accessSeq.incrementAndGet());
+        });
+        afterWrite();
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * 移除，返回被移除的值（已过期的条目返回 null）
+     */
+    public V remove(K key) {
+        Node<V> node = map.remove(key);
+        if (node == null || node.isExpired(clock.getAsLong())) {
+            return null;
+        }
+        return node.value;
+    }
+
+    /**
+     * 遍历未过期的条目（弱一致，遍历期间的并发修改可能可见也可能不可见）
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        long now = clock.getAsLong();
+        map.forEach((key, node) -> {
+            if (!node.isExpired(now)) {
+                action.accept(key, node.value);
+            }
+        });
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * 因超出上限被淘汰的条目数（累计）
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 因过期被移除的条目数（累计）
+     */
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    private long defaultExpiresAt(long now) {
+        return ttlMillis > 0 ? now + ttlMillis : Long.MAX_VALUE;
+    }
+
+    private void afterWrite() {
+        long now = clock.getAsLong();
+        boolean overSize = map.size() > maxSize;
+        boolean sweepDue = now - lastExpirySweep >= EXPIRY_SWEEP_INTERVAL_MS;
+        if ((!overSize && !sweepDue) || !sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            removeExpired(now);
+            lastExpirySweep = now;
+            int excess = map.size() - maxSize;
+            if (excess > 0) {
+                evictLeastRecentlyUsed(excess + maxSize / 16);
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private void removeExpired(long now) {
+        map.forEach((key, node) -> {
+            if (node.isExpired(now) && map.remove(key, node)) {
+                expirations.increment();
+            }
+        });
+    }
+
+    private void evictLeastRecentlyUsed(int count) {
+        // 先固定访问序号再排序，避免排序期间被并发读修改
+        List<Candidate<K, V>> candidates = new ArrayList<>(map.size());
+        map.forEach((key, node) -> candidates.add(new Candidate<>(key, node, node.lastAccess)));
+        candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+        for (int i = 0; i < count && i < candidates.size(); i++) {
+            Candidate<K, V> candidate = candidates.get(i);
+            if (map.remove(candidate.key(), candidate.node())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Node<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private volatile long lastAccess;
+
+        private Node(V value, long expiresAt, long lastAccess) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private record Candidate<K, V>(K key, Node<V> node, long lastAccess) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.laidekuai.common.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * HTTP 协商缓存工具（公开目录接口：商品、分类、公告）
+ *
+ * ETag 由实体 ID 与 updatedAt 等版本字段计算，不需要先序列化响应体；
+ * Cache-Control 为 no-cache：浏览器和 CDN 可以保存响应，但每次使用前需带 If-None-Match 回源校验，内容未变时返回 304。
+ * 使用弱 ETag（W/"..."）：Tomcat 不压缩带强 ETag 的响应，而 GET 上的 If-None-Match 本就按弱比较。
+ *
+ * @author Laidekuai Team
+ */
+public class HttpCacheUtils {
+
+    private HttpCacheUtils() {
+    }
+
+    /**
+     * 由记录的版本字段计算弱 ETag
+     *
+     * @param records 记录
+     * @param version 单条记录的版本标识（通常为 id + updatedAt）
+     * @param extra   影响响应内容的其它值（总数、页码等）
+     */
+    public static <T> String etag(Collection<T> records, Function<T, ?> version, Object... extra) {
+        StringBuilder source = new StringBuilder();
+        if (records != null) {
+            for (T record : records) {
+                source.append(version.apply(record)).append(';');
+            }
+        }
+        for (Object value : extra) {
+            source.append('|').append(value);
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * 写入 Cache-Control 并校验 If-None-Match，返回 true 时调用方直接返回 null（响应为 304）
+     *
+     * 已登录请求的响应可能与身份有关，只允许浏览器私有缓存。
+     */
+    public static boolean checkNotModified(WebRequest webRequest, String etag) {
+        if (webRequest instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            CacheControl cacheControl = SecurityUtils.getCurrentUserId() == null
+                    ? CacheControl.noCache().cachePublic()
+                    : CacheControl.noCache().cachePrivate();
+            servletWebRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return webRequest.checkNotModified(etag);
+    }
+}
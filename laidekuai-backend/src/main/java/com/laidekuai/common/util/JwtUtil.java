@@ -2,9 +2,11 @@ package com.laidekuai.common.util;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -35,15 +37,27 @@ public class JwtUtil {
     @Value("${app.jwt.expiration}")
     private Long expiration;
 
+    /**
+     * 签名密钥与解析器（密钥配置不变，启动时构建一次）
+     */
+    private SecretKey signKey;
+
+    private JwtParser parser;
+
     public Long getExpiration() {
         return expiration;
     }
 
-    /**
-     * 生成密钥
-     */
+    @PostConstruct
+    void init() {
+        signKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signKey)
+                .build();
+    }
+
     private SecretKey getSignKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return signKey;
     }
 
     /**
@@ -115,11 +129,7 @@ public class JwtUtil {
      * 从Token中获取所有Claims
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
@@ -1,15 +1,27 @@
 package com.laidekuai.common.util;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
 /**
  * 订单号生成器（雪花算法简化版）
  *
  * 格式: 时间戳 + 机器ID + 序列号
  * 示例: 2026013112345678901
  *
+ * 时间戳与序列号打包在一个 AtomicLong 中，通过 CAS 推进，不加锁。
+ * 同一毫秒序列号用尽或时钟小幅回拨时，借用后续毫秒的序列号空间（逻辑时钟领先物理时钟），
+ * 领先超过容忍范围时短暂等待，回拨超过容忍范围才报错。
+ *
  * @author Laidekuai Team
  */
+@Slf4j
 @Component
 public class OrderNoGenerator {
 
@@ -18,70 +30,87 @@ public class OrderNoGenerator {
      */
     private static final long EPOCH = 1735660800000L;
 
-    /**
-     * 机器ID（5位，支持0-31）
-     */
-    private final long machineId;
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final int WORKER_BITS = 5;
+
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
 
     /**
-     * 序列号（12位，支持0-4095）
+     * 机器ID上限（5位，支持0-31）
      */
-    private long sequence = 0L;
+    public static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
 
     /**
-     * 上次生成时间戳
+     * 机器ID（多实例部署时每个实例必须不同）
      */
-    private long lastTimestamp = -1L;
+    private final long machineId;
 
     /**
-     * 构造函数
+     * 允许的时钟回拨/逻辑时钟领先毫秒数
      */
-    public OrderNoGenerator() {
-        // 使用服务器IP最后一段作为机器ID（简化版）
-        this.machineId = 1L;
-    }
+    private final long maxDriftMs;
+
+    private final LongSupplier clock;
 
     /**
-     * 生成订单号（线程安全）
+     * 上次使用的 (时间戳 << 12 | 序列号)
      */
-    public synchronized String generate() {
-        long timestamp = System.currentTimeMillis() - EPOCH;
+    private final AtomicLong state = new AtomicLong(-1L);
 
-        // 时钟回拨检测
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException("时钟回拨，订单号生成失败");
-        }
+    @Autowired
+    public OrderNoGenerator(@Value("${app.order-no.worker-id:1}") long machineId,
+                            @Value("${app.order-no.max-clock-drift-ms:5000}") long maxDriftMs) {
+        this(machineId, maxDriftMs, System::currentTimeMillis);
+    }
 
-        // 同一毫秒内，序列号递增
-        if (timestamp == lastTimestamp) {
-            sequence = (sequence + 1) & 0xFFF; // 12位掩码
-            if (sequence == 0) {
-                // 序列号溢出，等待下一毫秒
-                timestamp = tilNextMillis(lastTimestamp);
-            }
-        } else {
-            // 新毫秒，序列号重置
-            sequence = 0L;
+    OrderNoGenerator(long machineId, long maxDriftMs, LongSupplier clock) {
+        if (machineId < 0 || machineId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("订单号机器ID必须在 0-" + MAX_WORKER_ID + " 之间: " + machineId);
         }
-
-        lastTimestamp = timestamp;
-
-        // 拼接订单号
-        long orderId = (timestamp << 17)        // 时间戳左移17位
-                | (machineId << 12)              // 机器ID左移12位
-                | sequence;                      // 序列号
-
-        return String.valueOf(orderId);
+        this.machineId = machineId;
+        this.maxDriftMs = Math.max(maxDriftMs, 0);
+        this.clock = clock;
+        log.info("订单号生成器机器ID: {}", machineId);
     }
 
     /**
-     * 等待下一毫秒
+     * 生成订单号（线程安全，无锁）
      */
-    private long tilNextMillis(long lastTimestamp) {
-        long timestamp = System.currentTimeMillis() - EPOCH;
-        while (timestamp <= lastTimestamp) {
-            timestamp = System.currentTimeMillis() - EPOCH;
+    public String generate() {
+        while (true) {
+            long current = state.get();
+            long now = clock.getAsLong() - EPOCH;
+            long lastTimestamp = current >> SEQUENCE_BITS;
+            long sequence = current & MAX_SEQUENCE;
+
+            long next;
+            if (current < 0 || now > lastTimestamp) {
+                // 新毫秒，序列号重置
+                next = now << SEQUENCE_BITS;
+            } else {
+                // 同一毫秒或时钟回拨：沿用逻辑时钟，序列号用尽则借用下一毫秒
+                if (lastTimestamp - now > maxDriftMs) {
+                    throw new IllegalStateException("时钟回拨 " + (lastTimestamp - now) + "ms，订单号生成失败");
+                }
+                if (sequence < MAX_SEQUENCE) {
+                    next = current + 1;
+                } else if (lastTimestamp + 1 - now > maxDriftMs) {
+                    // 借用已超出容忍范围，等物理时钟追上
+                    LockSupport.parkNanos(100_000L);
+                    continue;
+                } else {
+                    next = (lastTimestamp + 1) << SEQUENCE_BITS;
+                }
+            }
+
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >> SEQUENCE_BITS;
+                long orderId = (timestamp << (WORKER_BITS + SEQUENCE_BITS))  // 时间戳左移17位
+                        | (machineId << SEQUENCE_BITS)                         // 机器ID左移12位
+                        | (next & MAX_SEQUENCE);                               // 序列号
+                return String.valueOf(orderId);
+            }
         }
-        return timestamp;
     }
 }
@@ -4,7 +4,7 @@ import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.util.SecurityUtils;
 import com.laidekuai.favorite.service.FavoriteService;
-import com.laidekuai.goods.entity.Goods;
+import com.laidekuai.goods.dto.GoodsSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -57,7 +57,7 @@ public class FavoriteController {
      * GET /api/favorites
      */
     @GetMapping
-    public Result<PageResult<Goods>> listMyFavorites(
+    public Result<PageResult<GoodsSummary>> listMyFavorites(
             @RequestParam(value = "page", defaultValue = "1") Long page,
             @RequestParam(value = "size", defaultValue = "10") Long size) {
         Long userId = SecurityUtils.getCurrentUserId();
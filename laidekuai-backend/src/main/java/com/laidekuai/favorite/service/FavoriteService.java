@@ -2,7 +2,7 @@ package com.laidekuai.favorite.service;
 
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
-import com.laidekuai.goods.entity.Goods;
+import com.laidekuai.goods.dto.GoodsSummary;
 
 /**
  * 收藏服务接口
@@ -46,7 +46,7 @@ public interface FavoriteService {
      * @param size   每页大小
      * @return 收藏商品列表
      */
-    Result<PageResult<Goods>> listMyFavorites(Long userId, Long page, Long size);
+    Result<PageResult<GoodsSummary>> listMyFavorites(Long userId, Long page, Long size);
 
     /**
      * 获取商品收藏数
@@ -8,6 +8,7 @@ import com.laidekuai.common.dto.Result;
 import com.laidekuai.favorite.entity.Favorite;
 import com.laidekuai.favorite.mapper.FavoriteMapper;
 import com.laidekuai.favorite.service.FavoriteService;
+import com.laidekuai.goods.dto.GoodsSummary;
 import com.laidekuai.goods.entity.Goods;
 import com.laidekuai.goods.mapper.GoodsMapper;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -82,7 +86,7 @@ public class FavoriteServiceImpl implements FavoriteService {
     }
 
     @Override
-    public Result<PageResult<Goods>> listMyFavorites(Long userId, Long page, Long size) {
+    public Result<PageResult<GoodsSummary>> listMyFavorites(Long userId, Long page, Long size) {
         Page<Favorite> pageParam = new Page<>(page, size);
         LambdaQueryWrapper<Favorite> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(Favorite::getUserId, userId)
@@ -91,14 +95,20 @@ public class FavoriteServiceImpl implements FavoriteService {
 
         Page<Favorite> result = favoriteMapper.selectPage(pageParam, wrapper);
 
-        // 查询商品详情
+        // 查询商品摘要，按收藏时间顺序返回
         List<Long> goodsIds = result.getRecords().stream()
                 .map(Favorite::getGoodsId)
                 .collect(Collectors.toList());
 
-        List<Goods> goodsList = goodsIds.isEmpty() ? List.of() : goodsMapper.selectBatchIds(goodsIds);
+        List<GoodsSummary> goodsList = List.of();
+        if (!goodsIds.isEmpty()) {
+            Map<Long, GoodsSummary> goodsMap = goodsMapper.selectSummaryList(
+                            new LambdaQueryWrapper<Goods>().in(Goods::getId, goodsIds)).stream()
+                    .collect(Collectors.toMap(GoodsSummary::getId, Function.identity()));
+            goodsList = goodsIds.stream().map(goodsMap::get).filter(Objects::nonNull).toList();
+        }
 
-        PageResult<Goods> pageResult = new PageResult<>();
+        PageResult<GoodsSummary> pageResult = new PageResult<>();
         pageResult.setRecords(goodsList);
         pageResult.setTotal(result.getTotal());
         pageResult.setCurrent(result.getCurrent());
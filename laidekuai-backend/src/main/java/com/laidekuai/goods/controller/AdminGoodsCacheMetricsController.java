@@ -0,0 +1,28 @@
+package com.laidekuai.goods.controller;
+
+import com.laidekuai.common.dto.Result;
+import com.laidekuai.goods.service.GoodsDetailCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 管理端商品详情缓存指标查询
+ */
+@RestController
+@RequestMapping("/admin/system/metrics")
+@RequiredArgsConstructor
+public class AdminGoodsCacheMetricsController {
+
+    private final GoodsDetailCache goodsDetailCache;
+
+    @GetMapping("/goods-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Map<String, Object>> goodsCacheMetrics() {
+        return Result.success(goodsDetailCache.snapshot());
+    }
+}
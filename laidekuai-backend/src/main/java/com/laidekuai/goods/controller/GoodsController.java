@@ -1,12 +1,16 @@
 package com.laidekuai.goods.controller;
 
+import com.laidekuai.common.dto.CursorPageResult;
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
+import com.laidekuai.common.enums.GoodsStatus;
 import com.laidekuai.goods.dto.GoodsCreateRequest;
 import com.laidekuai.goods.dto.GoodsSearchRequest;
 import com.laidekuai.goods.dto.GoodsUpdateRequest;
+import com.laidekuai.goods.dto.GoodsSummary;
 import com.laidekuai.goods.entity.Goods;
 import com.laidekuai.goods.service.GoodsService;
+import com.laidekuai.common.util.HttpCacheUtils;
 import com.laidekuai.common.util.SecurityUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -14,6 +18,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 商品控制器
@@ -73,16 +81,45 @@ public class GoodsController {
      * 商品详情
      */
     @GetMapping("/{id}")
-    public Result<Goods> getGoodsDetail(@PathVariable Long id) {
-        return goodsService.getGoodsDetail(id, SecurityUtils.getCurrentUserId(), SecurityUtils.isAdmin());
+    public Result<Goods> getGoodsDetail(@PathVariable Long id, WebRequest webRequest) {
+        Result<Goods> result = goodsService.getGoodsDetail(id, SecurityUtils.getCurrentUserId(), SecurityUtils.isAdmin());
+        if (result.isSuccess()
+                && HttpCacheUtils.checkNotModified(webRequest, goodsEtag(List.of(result.getData())))) {
+            return null;
+        }
+        return result;
     }
 
     /**
      * 商品列表/搜索
      */
     @GetMapping
-    public Result<PageResult<Goods>> listGoods(GoodsSearchRequest request) {
-        return goodsService.listGoods(request);
+    public Result<PageResult<GoodsSummary>> listGoods(GoodsSearchRequest request, WebRequest webRequest) {
+        Result<PageResult<GoodsSummary>> result = goodsService.listGoods(request);
+        if (result.isSuccess()) {
+            PageResult<GoodsSummary> page = result.getData();
+            String etag = summaryEtag(page.getRecords(), page.getTotal(), page.getCurrent(), page.getSize());
+            if (HttpCacheUtils.checkNotModified(webRequest, etag)) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 商品列表（游标分页，携带 after 参数时生效）
+     */
+    @GetMapping(params = "after")
+    public Result<CursorPageResult<GoodsSummary>> listGoodsByCursor(GoodsSearchRequest request, WebRequest webRequest) {
+        Result<CursorPageResult<GoodsSummary>> result = goodsService.listGoodsByCursor(request);
+        if (result.isSuccess()) {
+            CursorPageResult<GoodsSummary> page = result.getData();
+            String etag = summaryEtag(page.getRecords(), page.getNextCursor(), page.getHasMore());
+            if (HttpCacheUtils.checkNotModified(webRequest, etag)) {
+                return null;
+            }
+        }
+        return result;
     }
 
     /**
@@ -139,7 +176,7 @@ public class GoodsController {
      */
     @GetMapping("/my")
     @PreAuthorize("hasAnyRole('BUYER', 'ADMIN')")
-    public Result<PageResult<Goods>> listMyGoods(
+    public Result<PageResult<GoodsSummary>> listMyGoods(
             @RequestParam(defaultValue = "1") Long page,
             @RequestParam(defaultValue = "10") Long size,
             @RequestParam(required = false) String status,
@@ -153,7 +190,7 @@ public class GoodsController {
      */
     @GetMapping("/admin/list")
     @PreAuthorize("hasRole('ADMIN')")
-    public Result<PageResult<Goods>> listAdminGoods(
+    public Result<PageResult<GoodsSummary>> listAdminGoods(
             @RequestParam(defaultValue = "1") Long page,
             @RequestParam(defaultValue = "10") Long size,
             @RequestParam(required = false) String status,
@@ -161,4 +198,23 @@ public class GoodsController {
             @RequestParam(required = false) Long categoryId) {
         return goodsService.listAdminGoods(page, size, status, keyword, categoryId);
     }
+
+    private static String goodsEtag(List<Goods> records, Object... extra) {
+        return HttpCacheUtils.etag(records,
+                goods -> goodsVersion(goods.getId(), goods.getUpdatedAt(), goods.getStock(), goods.getStatus()),
+                extra);
+    }
+
+    private static String summaryEtag(List<GoodsSummary> records, Object... extra) {
+        return HttpCacheUtils.etag(records,
+                goods -> goodsVersion(goods.getId(), goods.getUpdatedAt(), goods.getStock(), goods.getStatus()),
+                extra);
+    }
+
+    /**
+     * 商品版本：库存变更也会更新 updatedAt，但 updatedAt 只精确到秒，同一秒内多次变更时靠库存区分
+     */
+    private static String goodsVersion(Long id, LocalDateTime updatedAt, Integer stock, GoodsStatus status) {
+        return id + ":" + updatedAt + ":" + stock + ":" + status;
+    }
 }
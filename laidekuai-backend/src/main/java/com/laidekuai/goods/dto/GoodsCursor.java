@@ -0,0 +1,77 @@
+package com.laidekuai.goods.dto;
+
+import lombok.Getter;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 商品列表游标
+ *
+ * 对外是不透明的 Base64 字符串，内部格式为 "排序字段|方向|排序值|id"，
+ * 排序字段只支持 created_at 与 price，id 作为同值时的决胜列。
+ *
+ * @author Laidekuai Team
+ */
+@Getter
+public class GoodsCursor {
+
+    public static final String SORT_CREATED_AT = "created_at";
+    public static final String SORT_PRICE = "price";
+
+    private static final String SEPARATOR = "|";
+
+    private final String sortBy;
+
+    private final boolean asc;
+
+    private final LocalDateTime createdAt;
+
+    private final BigDecimal price;
+
+    private final Long id;
+
+    private GoodsCursor(String sortBy, boolean asc, LocalDateTime createdAt, BigDecimal price, Long id) {
+        this.sortBy = sortBy;
+        this.asc = asc;
+        this.createdAt = createdAt;
+        this.price = price;
+        this.id = id;
+    }
+
+    /**
+     * 以某条记录为界生成游标
+     */
+    public static GoodsCursor after(GoodsSummary goods, String sortBy, boolean asc) {
+        return new GoodsCursor(sortBy, asc, goods.getCreatedAt(), goods.getPrice(), goods.getId());
+    }
+
+    /**
+     * 解析游标，格式不合法时抛出 IllegalArgumentException
+     */
+    public static GoodsCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != 4 || !StringUtils.hasText(parts[2])) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        boolean asc = "asc".equals(parts[1]);
+        Long id = Long.valueOf(parts[3]);
+        if (SORT_PRICE.equals(parts[0])) {
+            return new GoodsCursor(SORT_PRICE, asc, null, new BigDecimal(parts[2]), id);
+        }
+        if (SORT_CREATED_AT.equals(parts[0])) {
+            return new GoodsCursor(SORT_CREATED_AT, asc, LocalDateTime.parse(parts[2]), null, id);
+        }
+        throw new IllegalArgumentException("invalid cursor");
+    }
+
+    public String encode() {
+        String value = SORT_PRICE.equals(sortBy) ? price.toPlainString() : createdAt.toString();
+        String raw = sortBy + SEPARATOR + (asc ? "asc" : "desc") + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,6 +2,8 @@ package com.laidekuai.goods.dto;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 /**
  * 商品查询请求
  *
@@ -11,15 +13,25 @@ import lombok.Data;
 public class GoodsSearchRequest {
 
     /**
-     * 关键词（前缀匹配）
+     * 关键词（标题/副标题/详情全文检索；单字时按标题前缀匹配）
      */
     private String keyword;
 
     /**
-     * 分类ID
+     * 分类ID（包含其子分类下的商品）
      */
     private Long categoryId;
 
+    /**
+     * 最低价格（含）
+     */
+    private BigDecimal minPrice;
+
+    /**
+     * 最高价格（含）
+     */
+    private BigDecimal maxPrice;
+
     /**
      * 页码
      */
@@ -31,12 +43,17 @@ public class GoodsSearchRequest {
     private Long size = 10L;
 
     /**
-     * 排序字段（created_at/price/stock）
+     * 排序字段（relevance/created_at/price/stock），为空时有关键词按相关度，否则按创建时间
      */
-    private String sortBy = "created_at";
+    private String sortBy;
 
     /**
      * 排序方向（asc/desc）
      */
     private String sortOrder = "desc";
+
+    /**
+     * 游标（游标分页模式，首页传空串；仅支持 created_at/price 排序）
+     */
+    private String after;
 }
@@ -0,0 +1,79 @@
+package com.laidekuai.goods.dto;
+
+import com.laidekuai.common.enums.GoodsStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品列表摘要
+ *
+ * 列表/搜索/收藏等分页接口使用，只查询 GoodsMapper.xml 中 Summary_Column_List 的列，
+ * 不含 detail、image_urls 等大字段；完整信息走商品详情接口。
+ *
+ * @author Laidekuai Team
+ */
+@Data
+public class GoodsSummary {
+
+    /**
+     * 商品ID
+     */
+    private Long id;
+
+    /**
+     * 卖家ID
+     */
+    private Long sellerId;
+
+    /**
+     * 分类ID
+     */
+    private Long categoryId;
+
+    /**
+     * 商品标题
+     */
+    private String title;
+
+    /**
+     * 副标题
+     */
+    private String subTitle;
+
+    /**
+     * 价格
+     */
+    private BigDecimal price;
+
+    /**
+     * 库存
+     */
+    private Integer stock;
+
+    /**
+     * 封面图URL
+     */
+    private String coverUrl;
+
+    /**
+     * 商品状态
+     */
+    private GoodsStatus status;
+
+    /**
+     * 审核驳回原因
+     */
+    private String auditReason;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
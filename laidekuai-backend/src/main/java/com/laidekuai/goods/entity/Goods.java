@@ -62,6 +62,11 @@ public class Goods {
      */
     private String imageUrls;
 
+    /**
+     * 封面图URL（imageUrls 第一张，随 imageUrls 一起写入）
+     */
+    private String coverUrl;
+
     /**
      * 商品状态
      */
@@ -1,10 +1,17 @@
 package com.laidekuai.goods.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.laidekuai.goods.dto.GoodsSummary;
 import com.laidekuai.goods.entity.Goods;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 /**
  * 商品Mapper
  *
@@ -30,4 +37,54 @@ public interface GoodsMapper extends BaseMapper<Goods> {
      * @return 影响行数
      */
     int releaseStock(@Param("goodsId") Long goodsId, @Param("quantity") Integer quantity);
+
+    /**
+     * 批量释放库存（一条 UPDATE ... CASE，超时批量取消使用）
+     *
+     * @param quantities goodsId -> 释放数量，不能为空
+     * @return 影响行数
+     */
+    int releaseStockBatch(@Param("quantities") java.util.Map<Long, Integer> quantities);
+
+    /**
+     * 写回热点商品预占的净扣减量（可为负，表示归还）
+     *
+     * @param goodsId 商品ID
+     * @param quantity 净扣减数量
+     * @return 影响行数
+     */
+    int applyReservedStock(@Param("goodsId") Long goodsId, @Param("quantity") Integer quantity);
+
+    /**
+     * 已上架商品全文检索（按相关度排序）
+     *
+     * @param page 分页参数
+     * @param keyword 关键词
+     * @param categoryId 分类ID（可选）
+     * @param minPrice 最低价格（可选）
+     * @param maxPrice 最高价格（可选）
+     * @return 商品摘要分页
+     */
+    Page<GoodsSummary> searchApproved(Page<GoodsSummary> page,
+                                      @Param("keyword") String keyword,
+                                      @Param("categoryId") Long categoryId,
+                                      @Param("minPrice") BigDecimal minPrice,
+                                      @Param("maxPrice") BigDecimal maxPrice);
+
+    /**
+     * 分页查询商品摘要（只查摘要列，已排除逻辑删除）
+     *
+     * @param page 分页参数
+     * @param wrapper 查询条件与排序
+     * @return 商品摘要分页
+     */
+    Page<GoodsSummary> selectSummaryPage(Page<GoodsSummary> page, @Param(Constants.WRAPPER) Wrapper<Goods> wrapper);
+
+    /**
+     * 查询商品摘要列表（只查摘要列，已排除逻辑删除）
+     *
+     * @param wrapper 查询条件、排序与 LIMIT
+     * @return 商品摘要列表
+     */
+    List<GoodsSummary> selectSummaryList(@Param(Constants.WRAPPER) Wrapper<Goods> wrapper);
 }
@@ -0,0 +1,51 @@
+package com.laidekuai.goods.mapper;
+
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.laidekuai.goods.service.GoodsDetailCache;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 库存变更时失效商品详情缓存
+ *
+ * deductStock/releaseStock(Batch) 分散在订单、纠纷、用户等多个服务中，统一在 Mapper 层拦截。
+ *
+ * @author Laidekuai Team
+ */
+public class GoodsStockCacheInterceptor implements InnerInterceptor {
+
+    private static final Set<String> STOCK_STATEMENTS = Set.of(
+            GoodsMapper.class.getName() + ".deductStock",
+            GoodsMapper.class.getName() + ".releaseStock",
+            GoodsMapper.class.getName() + ".releaseStockBatch",
+            GoodsMapper.class.getName() + ".applyReservedStock"
+    );
+
+    private final GoodsDetailCache goodsDetailCache;
+
+    public GoodsStockCacheInterceptor(GoodsDetailCache goodsDetailCache) {
+        this.goodsDetailCache = goodsDetailCache;
+    }
+
+    @Override
+    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) {
+        if (!STOCK_STATEMENTS.contains(ms.getId()) || !(parameter instanceof Map<?, ?> params)) {
+            return;
+        }
+        Object goodsId = params.containsKey("goodsId") ? params.get("goodsId") : null;
+        if (goodsId instanceof Long id) {
+            goodsDetailCache.evict(id);
+        }
+        Object quantities = params.containsKey("quantities") ? params.get("quantities") : null;
+        if (quantities instanceof Map<?, ?> batch) {
+            for (Object key : batch.keySet()) {
+                if (key instanceof Long id) {
+                    goodsDetailCache.evict(id);
+                }
+            }
+        }
+    }
+}
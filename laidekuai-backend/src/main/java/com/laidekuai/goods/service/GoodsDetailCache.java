@@ -0,0 +1,187 @@
+package com.laidekuai.goods.service;
+
+import com.laidekuai.common.enums.GoodsStatus;
+import com.laidekuai.common.util.BoundedCache;
+import com.laidekuai.goods.entity.Goods;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 已上架商品详情缓存（进程内，有界 BoundedCache）
+ *
+ * 只缓存 APPROVED 状态的商品；商品变更与库存变更时失效。
+ * 失效时立即移除，若处于事务中则在提交后再移除一次，避免并发读把旧值写回。
+ * 失效只在发生写操作的实例上生效，条目写入后 ttl-seconds 过期，作为多实例部署时其它实例的兜底。
+ * 回填与失效对同一商品经 BoundedCache.compute 串行执行，代数检查与写入之间不会插入失效。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+public class GoodsDetailCache {
+
+    private final boolean enabled;
+
+    private final int maxSize;
+
+    /**
+     * 写入后过期时间（毫秒），<= 0 表示不过期
+     */
+    private final long ttlMillis;
+
+    private final BoundedCache<Long, Goods> cache;
+
+    /**
+     * 按商品记录的失效代数：读库期间该商品发生失效则放弃回填，其它商品的失效不影响
+     */
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong generationSeq = new AtomicLong(0);
+
+    /**
+     * 未记录代数的商品的代数；代数表过大时整体清空并推进，使清空前开始的回填全部作废
+     */
+    private volatile long baseGeneration = 0;
+
+    private final int maxTrackedGenerations;
+
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong invalidations = new AtomicLong(0);
+
+    @Autowired
+    public GoodsDetailCache(@Value("${app.goods.detail-cache.enabled:true}") boolean enabled,
+                            @Value("${app.goods.detail-cache.max-size:2000}") int maxSize,
+                            @Value("${app.goods.detail-cache.ttl-seconds:30}") long ttlSeconds) {
+        this(enabled, maxSize, TimeUnit.SECONDS.toMillis(ttlSeconds), System::currentTimeMillis);
+    }
+
+    GoodsDetailCache(boolean enabled, int maxSize, long ttlMillis, LongSupplier clock) {
+        this.enabled = enabled && maxSize > 0;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.maxTrackedGenerations = Math.max(maxSize, 1024) * 4;
+        this.cache = new BoundedCache<>(maxSize, ttlMillis, clock);
+    }
+
+    /**
+     * 读取缓存，未命中返回 null（返回副本，调用方可安全修改）
+     */
+    public Goods get(Long goodsId) {
+        if (!enabled || goodsId == null) {
+            return null;
+        }
+        Goods cached = cache.get(goodsId);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return copyOf(cached);
+    }
+
+    /**
+     * 商品当前失效代数，读库前获取，回填时传回
+     */
+    public long currentGeneration(Long goodsId) {
+        return generations.getOrDefault(goodsId, baseGeneration);
+    }
+
+    /**
+     * 回填缓存（仅 APPROVED，且读库期间没有发生失效）
+     */
+    public void put(Goods goods, long expectedGeneration) {
+        if (!enabled || goods == null || goods.getId() == null || goods.getStatus() != GoodsStatus.APPROVED) {
+            return;
+        }
+        Goods copy = copyOf(goods);
+        cache.compute(copy.getId(), (id, current) -> currentGeneration(id) == expectedGeneration ? copy : current);
+    }
+
+    /**
+     * 失效指定商品
+     */
+    public void evict(Long goodsId) {
+        if (!enabled || goodsId == null) {
+            return;
+        }
+        remove(goodsId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(goodsId);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 命中次数（累计）
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 未命中次数（累计）
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        int size = cache.size();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", size);
+        result.put("maxSize", maxSize);
+        result.put("ttlSeconds", TimeUnit.MILLISECONDS.toSeconds(ttlMillis));
+        result.put("hits", hitCount);
+        result.put("misses", missCount);
+        result.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        result.put("evictions", cache.evictions());
+        result.put("invalidations", invalidations.get());
+        result.put("expirations", cache.expirations());
+        return result;
+    }
+
+    private void remove(Long goodsId) {
+        cache.compute(goodsId, (id, current) -> {
+            generations.put(id, generationSeq.incrementAndGet());
+            if (generations.size() > maxTrackedGenerations) {
+                baseGeneration = generationSeq.incrementAndGet();
+                generations.clear();
+            }
+            if (current != null) {
+                invalidations.incrementAndGet();
+            }
+            return null;
+        });
+    }
+
+    private static Goods copyOf(Goods source) {
+        Goods copy = new Goods();
+        BeanUtils.copyProperties(source, copy);
+        return copy;
+    }
+}
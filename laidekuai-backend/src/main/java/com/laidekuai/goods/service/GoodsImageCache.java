@@ -0,0 +1,82 @@
+package com.laidekuai.goods.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laidekuai.common.util.BoundedCache;
+import com.laidekuai.goods.entity.Goods;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 商品图片列表解析缓存（进程内，有界 BoundedCache）
+ *
+ * 以 imageUrls 原始 JSON 为键缓存解析结果，内容变化即为新键，不需要主动失效。
+ * 取封面优先使用 goods.cover_url 冗余列，只有历史数据未回填时才回退到解析 JSON。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+public class GoodsImageCache {
+
+    private final ObjectMapper objectMapper;
+
+    private final BoundedCache<String, List<String>> cache;
+
+    public GoodsImageCache(ObjectMapper objectMapper,
+                           @Value("${app.goods.image-cache.max-size:10000}") int maxSize) {
+        this.objectMapper = objectMapper;
+        this.cache = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * 解析图片列表（不可修改），解析失败返回空列表
+     */
+    public List<String> images(String imageUrlsJson) {
+        if (imageUrlsJson == null || imageUrlsJson.isEmpty()) {
+            return List.of();
+        }
+        List<String> cached = cache.get(imageUrlsJson);
+        if (cached != null) {
+            return cached;
+        }
+        List<String> images = parse(imageUrlsJson);
+        cache.put(imageUrlsJson, images);
+        return images;
+    }
+
+    /**
+     * 商品封面：优先 coverUrl，缺失时取图片列表第一张
+     */
+    public String cover(Goods goods) {
+        if (goods == null) {
+            return null;
+        }
+        if (goods.getCoverUrl() != null && !goods.getCoverUrl().isEmpty()) {
+            return goods.getCoverUrl();
+        }
+        return cover(goods.getImageUrls());
+    }
+
+    /**
+     * 封面图（第一张图片）
+     */
+    public String cover(String imageUrlsJson) {
+        List<String> images = images(imageUrlsJson);
+        return images.isEmpty() ? null : images.get(0);
+    }
+
+    private List<String> parse(String imageUrlsJson) {
+        try {
+            String[] urls = objectMapper.readValue(imageUrlsJson, String[].class);
+            return urls == null ? List.of() : List.copyOf(Arrays.stream(urls).filter(url -> url != null).toList());
+        } catch (JsonProcessingException e) {
+            log.warn("解析商品图片URL失败: {}", imageUrlsJson, e);
+            return List.of();
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.laidekuai.goods.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.laidekuai.common.dto.CursorPageResult;
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.goods.dto.GoodsCreateRequest;
 import com.laidekuai.goods.dto.GoodsSearchRequest;
+import com.laidekuai.goods.dto.GoodsSummary;
 import com.laidekuai.goods.dto.GoodsUpdateRequest;
 import com.laidekuai.goods.entity.Goods;
 
@@ -57,7 +59,15 @@ public interface GoodsService {
      * @param request 搜索请求
      * @return 商品列表
      */
-    Result<PageResult<Goods>> listGoods(GoodsSearchRequest request);
+    Result<PageResult<GoodsSummary>> listGoods(GoodsSearchRequest request);
+
+    /**
+     * 商品列表（游标分页，不统计总数）
+     *
+     * @param request 搜索请求，after 为上一页返回的游标
+     * @return 商品列表
+     */
+    Result<CursorPageResult<GoodsSummary>> listGoodsByCursor(GoodsSearchRequest request);
 
     /**
      * 提交审核（卖家）
@@ -106,10 +116,10 @@ public interface GoodsService {
      * @param keyword 关键词
      * @return 商品列表
      */
-    Result<PageResult<Goods>> listMyGoods(Long sellerId, Long page, Long size, String status, String keyword);
+    Result<PageResult<GoodsSummary>> listMyGoods(Long sellerId, Long page, Long size, String status, String keyword);
 
     /**
      * 管理员查询商品列表
      */
-    Result<PageResult<Goods>> listAdminGoods(Long page, Long size, String status, String keyword, Long categoryId);
+    Result<PageResult<GoodsSummary>> listAdminGoods(Long page, Long size, String status, String keyword, Long categoryId);
 }
@@ -1,20 +1,25 @@
 package com.laidekuai.goods.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.laidekuai.audit.service.AuditLogService;
 import com.laidekuai.common.dto.ErrorCode;
+import com.laidekuai.common.dto.CursorPageResult;
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.enums.GoodsStatus;
 import com.laidekuai.common.exception.BusinessException;
 import com.laidekuai.goods.dto.GoodsCreateRequest;
+import com.laidekuai.goods.dto.GoodsCursor;
 import com.laidekuai.goods.dto.GoodsSearchRequest;
+import com.laidekuai.goods.dto.GoodsSummary;
 import com.laidekuai.goods.dto.GoodsUpdateRequest;
 import com.laidekuai.goods.entity.Goods;
 import com.laidekuai.goods.mapper.GoodsMapper;
+import com.laidekuai.goods.service.GoodsDetailCache;
 import com.laidekuai.goods.service.GoodsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +28,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 商品服务实现
@@ -37,6 +44,18 @@ public class GoodsServiceImpl implements GoodsService {
     private final GoodsMapper goodsMapper;
     private final ObjectMapper objectMapper;
     private final AuditLogService auditLogService;
+    private final GoodsDetailCache goodsDetailCache;
+
+    /**
+     * 全文检索最短关键词长度（与 MySQL ngram_token_size 一致）
+     */
+    private static final int FULL_TEXT_MIN_LENGTH = 2;
+
+    /**
+     * 分类子树条件：category.path 以所选分类路径为前缀
+     */
+    private static final String CATEGORY_SUBTREE_CONDITION = "category_id IN (SELECT c.id FROM category c"
+            + " JOIN category p ON c.path LIKE CONCAT(p.path, '%') WHERE p.id = {0} AND c.deleted = 0)";
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -62,6 +81,7 @@ public class GoodsServiceImpl implements GoodsService {
         goods.setStock(request.getStock());
         goods.setDetail(request.getDetail());
         goods.setImageUrls(imageUrlsJson);
+        goods.setCoverUrl(coverOf(request.getImageUrls()));
         goods.setStatus(GoodsStatus.DRAFT);
         goods.setCreatedAt(LocalDateTime.now());
         goods.setUpdatedAt(LocalDateTime.now());
@@ -121,6 +141,7 @@ public class GoodsServiceImpl implements GoodsService {
             try {
                 String imageUrlsJson = objectMapper.writeValueAsString(request.getImageUrls());
                 goods.setImageUrls(imageUrlsJson);
+                goods.setCoverUrl(coverOf(request.getImageUrls()));
             } catch (JsonProcessingException e) {
                 log.warn("图片URL列表格式错误: {}", request.getImageUrls());
                 return Result.error(ErrorCode.BAD_REQUEST);
@@ -137,6 +158,7 @@ public class GoodsServiceImpl implements GoodsService {
 
         // 6. 保存到数据库
         goodsMapper.updateById(goods);
+        goodsDetailCache.evict(goodsId);
 
         log.info("商品更新成功，商品ID: {}", goodsId);
 
@@ -169,6 +191,7 @@ public class GoodsServiceImpl implements GoodsService {
 
         // 4. 软删除
         goodsMapper.deleteById(goodsId);
+        goodsDetailCache.evict(goodsId);
 
         log.info("商品删除成功，商品ID: {}", goodsId);
 
@@ -179,10 +202,15 @@ public class GoodsServiceImpl implements GoodsService {
     public Result<Goods> getGoodsDetail(Long goodsId, Long currentUserId, boolean isAdmin) {
         log.info("获取商品详情，商品ID: {}", goodsId);
 
-        Goods goods = goodsMapper.selectById(goodsId);
+        Goods goods = goodsDetailCache.get(goodsId);
         if (goods == null) {
-            log.warn("商品不存在: {}", goodsId);
-            return Result.error(ErrorCode.GOODS_NOT_FOUND);
+            long generation = goodsDetailCache.currentGeneration(goodsId);
+            goods = goodsMapper.selectById(goodsId);
+            if (goods == null) {
+                log.warn("商品不存在: {}", goodsId);
+                return Result.error(ErrorCode.GOODS_NOT_FOUND);
+            }
+            goodsDetailCache.put(goods, generation);
         }
 
         if (goods.getStatus() != GoodsStatus.APPROVED
@@ -197,30 +225,30 @@ public class GoodsServiceImpl implements GoodsService {
     }
 
     @Override
-    public Result<PageResult<Goods>> listGoods(GoodsSearchRequest request) {
+    @Transactional(readOnly = true)
+    public Result<PageResult<GoodsSummary>> listGoods(GoodsSearchRequest request) {
         log.info("查询商品列表，关键词: {}, 分类: {}, 页码: {}, 每页: {}",
                 request.getKeyword(), request.getCategoryId(), request.getPage(), request.getSize());
 
         // 1. 构建分页参数
         long pageNo = (request.getPage() == null || request.getPage() <= 0) ? 1 : request.getPage();
         long size = (request.getSize() == null || request.getSize() <= 0) ? 10 : Math.min(request.getSize(), 50);
-        Page<Goods> pageParam = new Page<>(pageNo, size);
+        Page<GoodsSummary> pageParam = new Page<>(pageNo, size);
+
+        // 有关键词且未指定其他排序时，走全文索引按相关度排序
+        String sortBy = request.getSortBy();
+        if (isFullTextKeyword(request.getKeyword())
+                && (!StringUtils.hasText(sortBy) || "relevance".equalsIgnoreCase(sortBy))) {
+            Page<GoodsSummary> searchResult = goodsMapper.searchApproved(pageParam, request.getKeyword().trim(),
+                    request.getCategoryId(), request.getMinPrice(), request.getMaxPrice());
+            return Result.success(PageResult.of(searchResult.getRecords(), searchResult.getTotal(),
+                    searchResult.getCurrent(), searchResult.getSize()));
+        }
 
         // 2. 构建查询条件
         LambdaQueryWrapper<Goods> wrapper = new LambdaQueryWrapper<>();
 
-        // 只查询已上架的商品
-        wrapper.eq(Goods::getStatus, GoodsStatus.APPROVED);
-
-        // 关键词前缀匹配（标题）
-        if (StringUtils.hasText(request.getKeyword())) {
-            wrapper.likeRight(Goods::getTitle, request.getKeyword());
-        }
-
-        // 分类筛选
-        if (request.getCategoryId() != null) {
-            wrapper.eq(Goods::getCategoryId, request.getCategoryId());
-        }
+        applyPublicFilters(wrapper, request);
 
         // 排序
         if ("price".equalsIgnoreCase(request.getSortBy())) {
@@ -240,11 +268,11 @@ public class GoodsServiceImpl implements GoodsService {
             wrapper.orderByDesc(Goods::getCreatedAt);
         }
 
-        // 3. 执行分页查询
-        Page<Goods> pageResult = goodsMapper.selectPage(pageParam, wrapper);
+        // 3. 执行分页查询（只查摘要列）
+        Page<GoodsSummary> pageResult = goodsMapper.selectSummaryPage(pageParam, wrapper);
 
         // 4. 构建返回结果
-        PageResult<Goods> result = PageResult.of(
+        PageResult<GoodsSummary> result = PageResult.of(
                 pageResult.getRecords(),
                 pageResult.getTotal(),
                 pageResult.getCurrent(),
@@ -256,6 +284,118 @@ public class GoodsServiceImpl implements GoodsService {
         return Result.success(result);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Result<CursorPageResult<GoodsSummary>> listGoodsByCursor(GoodsSearchRequest request) {
+        long size = (request.getSize() == null || request.getSize() <= 0) ? 10 : Math.min(request.getSize(), 50);
+        String sortBy = "price".equalsIgnoreCase(request.getSortBy()) ? GoodsCursor.SORT_PRICE : GoodsCursor.SORT_CREATED_AT;
+        boolean asc = "asc".equalsIgnoreCase(request.getSortOrder());
+
+        GoodsCursor cursor = null;
+        if (StringUtils.hasText(request.getAfter())) {
+            try {
+                cursor = GoodsCursor.decode(request.getAfter());
+            } catch (RuntimeException e) {
+                log.warn("商品列表游标无效: {}", request.getAfter());
+                return Result.error(ErrorCode.BAD_REQUEST.getCode(), "游标无效");
+            }
+            if (!cursor.getSortBy().equals(sortBy) || cursor.isAsc() != asc) {
+                return Result.error(ErrorCode.BAD_REQUEST.getCode(), "游标与排序条件不匹配");
+            }
+        }
+
+        LambdaQueryWrapper<Goods> wrapper = new LambdaQueryWrapper<>();
+        applyPublicFilters(wrapper, request);
+
+        // 以 (排序列, id) 作为复合键做 seek，走 idx_goods_status_created / idx_goods_status_price
+        if (cursor != null) {
+            if (GoodsCursor.SORT_PRICE.equals(sortBy)) {
+                seekAfter(wrapper, Goods::getPrice, cursor.getPrice(), cursor.getId(), asc);
+            } else {
+                seekAfter(wrapper, Goods::getCreatedAt, cursor.getCreatedAt(), cursor.getId(), asc);
+            }
+        }
+        if (GoodsCursor.SORT_PRICE.equals(sortBy)) {
+            wrapper.orderBy(true, asc, Goods::getPrice, Goods::getId);
+        } else {
+            wrapper.orderBy(true, asc, Goods::getCreatedAt, Goods::getId);
+        }
+        // 多取一条判断是否还有下一页，不执行 COUNT
+        wrapper.last("LIMIT " + (size + 1));
+
+        List<GoodsSummary> records = goodsMapper.selectSummaryList(wrapper);
+        String nextCursor = null;
+        if (records.size() > size) {
+            records = new ArrayList<>(records.subList(0, (int) size));
+            nextCursor = GoodsCursor.after(records.get(records.size() - 1), sortBy, asc).encode();
+        }
+        return Result.success(CursorPageResult.of(records, size, nextCursor));
+    }
+
+    /**
+     * seek 条件：(column, id) 严格位于游标之后
+     */
+    private static <V> void seekAfter(LambdaQueryWrapper<Goods> wrapper, SFunction<Goods, V> column,
+                                      V value, Long id, boolean asc) {
+        wrapper.and(w -> {
+            if (asc) {
+                w.gt(column, value).or(o -> o.eq(column, value).gt(Goods::getId, id));
+            } else {
+                w.lt(column, value).or(o -> o.eq(column, value).lt(Goods::getId, id));
+            }
+        });
+    }
+
+    /**
+     * 公开列表的公共筛选条件：已上架 + 关键词 + 分类 + 价格区间
+     */
+    private void applyPublicFilters(LambdaQueryWrapper<Goods> wrapper, GoodsSearchRequest request) {
+        // 只查询已上架的商品
+        wrapper.eq(Goods::getStatus, GoodsStatus.APPROVED);
+
+        // 关键词：全文检索（标题/副标题/详情），单字退化为标题前缀匹配
+        if (isFullTextKeyword(request.getKeyword())) {
+            wrapper.apply("MATCH(title, sub_title, detail) AGAINST({0} IN NATURAL LANGUAGE MODE)",
+                    request.getKeyword().trim());
+        } else if (StringUtils.hasText(request.getKeyword())) {
+            wrapper.likeRight(Goods::getTitle, request.getKeyword().trim());
+        }
+
+        // 分类筛选（含子分类，按物化路径前缀匹配）
+        if (request.getCategoryId() != null) {
+            wrapper.apply(CATEGORY_SUBTREE_CONDITION, request.getCategoryId());
+        }
+
+        // 价格区间
+        if (request.getMinPrice() != null) {
+            wrapper.ge(Goods::getPrice, request.getMinPrice());
+        }
+        if (request.getMaxPrice() != null) {
+            wrapper.le(Goods::getPrice, request.getMaxPrice());
+        }
+    }
+
+    /**
+     * ngram 分词最小长度为 2，单字关键词无法命中全文索引
+     */
+    private boolean isFullTextKeyword(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return false;
+        }
+        String trimmed = keyword.trim();
+        return trimmed.codePointCount(0, trimmed.length()) >= FULL_TEXT_MIN_LENGTH;
+    }
+
+    /**
+     * 封面取图片列表第一张，与 image_urls 同步写入 cover_url
+     */
+    private static String coverOf(List<String> imageUrls) {
+        if (imageUrls == null || imageUrls.isEmpty()) {
+            return null;
+        }
+        return imageUrls.get(0);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Result<Void> submitForAudit(Long goodsId, Long sellerId) {
@@ -315,6 +455,7 @@ public class GoodsServiceImpl implements GoodsService {
         goods.setAuditReason(null);
         goods.setUpdatedAt(LocalDateTime.now());
         goodsMapper.updateById(goods);
+        goodsDetailCache.evict(goodsId);
 
         log.info("商品审核通过，商品ID: {}", goodsId);
         auditLogService.record(null, "GOODS_APPROVE", adminId, "ADMIN", null);
@@ -347,6 +488,7 @@ public class GoodsServiceImpl implements GoodsService {
         goods.setAuditReason(reason);
         goods.setUpdatedAt(LocalDateTime.now());
         goodsMapper.updateById(goods);
+        goodsDetailCache.evict(goodsId);
 
         log.info("商品审核驳回，商品ID: {}, 原因: {}", goodsId, reason);
         auditLogService.record(null, "GOODS_REJECT", adminId, "ADMIN", reason);
@@ -382,6 +524,7 @@ public class GoodsServiceImpl implements GoodsService {
         goods.setStatus(GoodsStatus.OFFLINE);
         goods.setUpdatedAt(LocalDateTime.now());
         goodsMapper.updateById(goods);
+        goodsDetailCache.evict(goodsId);
 
         log.info("商品下架成功，商品ID: {}", goodsId);
 
@@ -389,11 +532,12 @@ public class GoodsServiceImpl implements GoodsService {
     }
 
     @Override
-    public Result<PageResult<Goods>> listMyGoods(Long sellerId, Long page, Long size, String status, String keyword) {
+    @Transactional(readOnly = true)
+    public Result<PageResult<GoodsSummary>> listMyGoods(Long sellerId, Long page, Long size, String status, String keyword) {
         // 1. 分页参数
         long pageNo = (page == null || page <= 0) ? 1 : page;
         long pageSize = (size == null || size <= 0) ? 10 : size;
-        Page<Goods> pageParam = new Page<>(pageNo, pageSize);
+        Page<GoodsSummary> pageParam = new Page<>(pageNo, pageSize);
 
         // 2. 查询条件
         LambdaQueryWrapper<Goods> wrapper = new LambdaQueryWrapper<>();
@@ -417,7 +561,7 @@ public class GoodsServiceImpl implements GoodsService {
         wrapper.orderByDesc(Goods::getCreatedAt);
 
         // 3. 执行查询
-        Page<Goods> pageResult = goodsMapper.selectPage(pageParam, wrapper);
+        Page<GoodsSummary> pageResult = goodsMapper.selectSummaryPage(pageParam, wrapper);
 
         return Result.success(PageResult.of(
                 pageResult.getRecords(),
@@ -428,10 +572,11 @@ public class GoodsServiceImpl implements GoodsService {
     }
 
     @Override
-    public Result<PageResult<Goods>> listAdminGoods(Long page, Long size, String status, String keyword, Long categoryId) {
+    @Transactional(readOnly = true)
+    public Result<PageResult<GoodsSummary>> listAdminGoods(Long page, Long size, String status, String keyword, Long categoryId) {
         long pageNo = (page == null || page <= 0) ? 1 : page;
         long pageSize = (size == null || size <= 0) ? 10 : size;
-        Page<Goods> pageParam = new Page<>(pageNo, pageSize);
+        Page<GoodsSummary> pageParam = new Page<>(pageNo, pageSize);
 
         LambdaQueryWrapper<Goods> wrapper = new LambdaQueryWrapper<>();
         
@@ -446,13 +591,14 @@ public class GoodsServiceImpl implements GoodsService {
             wrapper.like(Goods::getTitle, keyword);
         }
 
+        // 分类筛选与前台一致：含子分类
         if (categoryId != null) {
-            wrapper.eq(Goods::getCategoryId, categoryId);
+            wrapper.apply(CATEGORY_SUBTREE_CONDITION, categoryId);
         }
 
         wrapper.orderByDesc(Goods::getCreatedAt);
 
-        Page<Goods> pageResult = goodsMapper.selectPage(pageParam, wrapper);
+        Page<GoodsSummary> pageResult = goodsMapper.selectSummaryPage(pageParam, wrapper);
 
         return Result.success(PageResult.of(
                 pageResult.getRecords(),
@@ -16,7 +16,7 @@ import com.laidekuai.message.mapper.MessageMapper;
 import com.laidekuai.message.mapper.MessageReplyMapper;
 import com.laidekuai.message.service.MessageService;
 import com.laidekuai.user.entity.User;
-import com.laidekuai.user.mapper.UserMapper;
+import com.laidekuai.user.service.UserDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -45,7 +45,7 @@ public class MessageServiceImpl implements MessageService {
     private final MessageMapper messageMapper;
     private final GoodsMapper goodsMapper;
     private final MessageReplyMapper messageReplyMapper;
-    private final UserMapper userMapper;
+    private final UserDirectory userDirectory;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -75,7 +75,7 @@ public class MessageServiceImpl implements MessageService {
 
         log.info("Message created ID: {}", message.getId());
 
-        User user = userMapper.selectById(userId);
+        User user = userDirectory.get(userId);
         String name = user != null ? user.getNickName() : null;
         String avatar = user != null ? user.getAvatarUrl() : null;
 
@@ -151,15 +151,7 @@ public class MessageServiceImpl implements MessageService {
             }
         }
 
-        Map<Long, User> userMap = new HashMap<>();
-        if (!userIds.isEmpty()) {
-            List<User> users = userMapper.selectBatchIds(userIds);
-            if (users != null) {
-                for (User user : users) {
-                    userMap.put(user.getId(), user);
-                }
-            }
-        }
+        Map<Long, User> userMap = userDirectory.resolve(userIds);
 
         List<MessageDTO> dtos = messages.stream()
                 .map(message -> {
@@ -240,10 +232,13 @@ public class MessageServiceImpl implements MessageService {
         }
 
         Page<Message> result = messageMapper.selectPage(pageParam, wrapper);
+        Map<Long, User> userMap = userDirectory.resolve(result.getRecords().stream()
+                .map(this::resolveMessageUserId)
+                .collect(Collectors.toSet()));
         List<MessageDTO> dtos = result.getRecords().stream()
                 .map(message -> {
                     Long senderId = resolveMessageUserId(message);
-                    User user = senderId != null ? userMapper.selectById(senderId) : null;
+                    User user = senderId != null ? userMap.get(senderId) : null;
                     String name = user != null ? user.getNickName() : null;
                     String avatar = user != null ? user.getAvatarUrl() : null;
                     return MessageDTO.fromMessage(message, name, avatar);
@@ -269,8 +264,11 @@ public class MessageServiceImpl implements MessageService {
         wrapper.orderByDesc(MessageReply::getCreatedAt);
 
         Page<MessageReply> result = messageReplyMapper.selectPage(pageParam, wrapper);
+        Map<Long, User> userMap = userDirectory.resolve(result.getRecords().stream()
+                .map(MessageReply::getReplierId)
+                .collect(Collectors.toSet()));
         List<MessageDTO> dtos = result.getRecords().stream()
-                .map(this::toReplyDTO)
+                .map(reply -> toReplyDTO(reply, userMap))
                 .collect(Collectors.toList());
 
         PageResult<MessageDTO> pageResult = new PageResult<>();
@@ -352,22 +350,8 @@ public class MessageServiceImpl implements MessageService {
 
     private MessageDTO toReplyDTO(MessageReply reply) {
         Long userId = reply.getReplierId();
-        User user = userId != null ? userMapper.selectById(userId) : null;
-        String name = user != null ? user.getNickName() : null;
-        String avatar = user != null ? user.getAvatarUrl() : null;
-
-        MessageDTO dto = new MessageDTO();
-        dto.setId(reply.getId());
-        dto.setParentId(reply.getMessageId());
-        dto.setSenderId(userId);
-        dto.setSenderName(name != null ? name : "User" + userId);
-        dto.setSenderAvatar(avatar);
-        dto.setContent(reply.getContent());
-        dto.setStatus(reply.getStatus());
-        dto.setCreatedAt(reply.getCreatedAt());
-        dto.setUpdatedAt(reply.getUpdatedAt());
-        dto.setUpdatedBy(reply.getUpdatedBy());
-        return dto;
+        User user = userDirectory.get(userId);
+        return toReplyDTO(reply, user != null ? Map.of(userId, user) : Map.of());
     }
 
     private MessageDTO toReplyDTO(MessageReply reply, Map<Long, User> userMap) {
@@ -2,12 +2,16 @@ package com.laidekuai.notice.controller;
 
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
+import com.laidekuai.common.util.HttpCacheUtils;
 import com.laidekuai.notice.dto.NoticeDTO;
 import com.laidekuai.notice.service.NoticeService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 /**
  * 公告控制器
@@ -28,16 +32,33 @@ public class NoticeController {
     @GetMapping("/notices")
     public Result<PageResult<NoticeDTO>> listPublishedNotices(
             @RequestParam(defaultValue = "1") Long page,
-            @RequestParam(defaultValue = "10") Long size) {
-        return noticeService.listPublishedNotices(page, size);
+            @RequestParam(defaultValue = "10") Long size,
+            WebRequest webRequest) {
+        Result<PageResult<NoticeDTO>> result = noticeService.listPublishedNotices(page, size);
+        if (result.isSuccess()) {
+            PageResult<NoticeDTO> data = result.getData();
+            String etag = noticeEtag(data.getRecords(), data.getTotal(), data.getCurrent(), data.getSize());
+            if (HttpCacheUtils.checkNotModified(webRequest, etag)) {
+                return null;
+            }
+        }
+        return result;
     }
 
     /**
      * 公告详情（已发布）
      */
     @GetMapping("/notices/{id}")
-    public Result<NoticeDTO> getNoticeDetail(@PathVariable Long id) {
-        return noticeService.getPublishedNotice(id);
+    public Result<NoticeDTO> getNoticeDetail(@PathVariable Long id, WebRequest webRequest) {
+        Result<NoticeDTO> result = noticeService.getPublishedNotice(id);
+        if (result.isSuccess() && HttpCacheUtils.checkNotModified(webRequest, noticeEtag(List.of(result.getData())))) {
+            return null;
+        }
+        return result;
+    }
+
+    private static String noticeEtag(List<NoticeDTO> records, Object... extra) {
+        return HttpCacheUtils.etag(records, notice -> notice.getId() + ":" + notice.getUpdatedAt(), extra);
     }
 
     // 管理员接口
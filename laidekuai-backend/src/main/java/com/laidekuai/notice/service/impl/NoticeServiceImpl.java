@@ -32,6 +32,7 @@ public class NoticeServiceImpl implements NoticeService {
     private final NoticeMapper noticeMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public Result<PageResult<NoticeDTO>> listPublishedNotices(Long page, Long size) {
         Page<Notice> pageParam = new Page<>(page, size);
         LambdaQueryWrapper<Notice> wrapper = new LambdaQueryWrapper<>();
@@ -44,6 +45,7 @@ public class NoticeServiceImpl implements NoticeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Result<NoticeDTO> getPublishedNotice(Long id) {
         Notice notice = noticeMapper.selectById(id);
         if (notice == null || notice.getDeleted() == 1) {
@@ -58,6 +60,7 @@ public class NoticeServiceImpl implements NoticeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Result<PageResult<NoticeDTO>> listAllNotices(Long page, Long size) {
         Page<Notice> pageParam = new Page<>(page, size);
         LambdaQueryWrapper<Notice> wrapper = new LambdaQueryWrapper<>();
@@ -0,0 +1,27 @@
+package com.laidekuai.order.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 热点商品待写回扣减量
+ *
+ * 与订单同一事务写入，写回 goods.stock 后删除。
+ */
+@Data
+@TableName("hot_stock_pending")
+public class HotStockPending {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long goodsId;
+
+    private Integer quantity;
+
+    private LocalDateTime createdAt;
+}
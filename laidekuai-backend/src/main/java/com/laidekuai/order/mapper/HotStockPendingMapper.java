@@ -0,0 +1,14 @@
+package com.laidekuai.order.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.laidekuai.order.entity.HotStockPending;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 热点商品待写回扣减量Mapper
+ *
+ * @author Laidekuai Team
+ */
+@Mapper
+public interface HotStockPendingMapper extends BaseMapper<HotStockPending> {
+}
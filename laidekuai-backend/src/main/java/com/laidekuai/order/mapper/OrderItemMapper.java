@@ -5,6 +5,7 @@ import com.laidekuai.order.entity.OrderItem;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +24,14 @@ public interface OrderItemMapper extends BaseMapper<OrderItem> {
      */
     List<OrderItem> selectByOrderId(@Param("orderId") Long orderId);
 
+    /**
+     * 根据订单ID批量查询订单项（列表页组装使用，避免逐单查询）
+     *
+     * @param orderIds 订单ID集合
+     * @return 订单项列表
+     */
+    List<OrderItem> selectByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
     /**
      * 批量插入订单项
      *
@@ -40,6 +49,15 @@ public interface OrderItemMapper extends BaseMapper<OrderItem> {
      */
     int updateStatusByOrderId(@Param("orderId") Long orderId, @Param("status") String status);
 
+    /**
+     * 根据订单ID批量更新订单状态
+     *
+     * @param orderIds 订单ID集合
+     * @param status   状态
+     * @return 影响行数
+     */
+    int updateStatusByOrderIds(@Param("orderIds") Collection<Long> orderIds, @Param("status") String status);
+
     /**
      * 根据订单ID更新订单主单状态（不修改订单项状态）
      *
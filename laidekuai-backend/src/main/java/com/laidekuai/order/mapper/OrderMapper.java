@@ -43,6 +43,28 @@ public interface OrderMapper extends BaseMapper<Order> {
                               @Param("cancelTime") java.time.LocalDateTime cancelTime,
                               @Param("updatedAt") java.time.LocalDateTime updatedAt);
 
+    /**
+     * 锁定仍处于 PENDING_PAY 的订单（超时批量取消使用）
+     *
+     * @param orderIds 候选订单ID
+     * @return 已锁定、可取消的订单ID
+     */
+    java.util.List<Long> selectPendingIdsForUpdate(@Param("orderIds") java.util.Collection<Long> orderIds);
+
+    /**
+     * 批量条件取消订单（仅 PENDING_PAY）
+     *
+     * @param orderIds     订单ID
+     * @param cancelReason 取消原因
+     * @param cancelTime   取消时间
+     * @param updatedAt    更新时间
+     * @return 影响行数
+     */
+    int markCanceledBatchIfPending(@Param("orderIds") java.util.Collection<Long> orderIds,
+                                   @Param("cancelReason") String cancelReason,
+                                   @Param("cancelTime") java.time.LocalDateTime cancelTime,
+                                   @Param("updatedAt") java.time.LocalDateTime updatedAt);
+
     /**
      * 条件更新订单为已发货（仅 PAID）
      *
@@ -0,0 +1,321 @@
+package com.laidekuai.order.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.laidekuai.common.enums.GoodsStatus;
+import com.laidekuai.goods.entity.Goods;
+import com.laidekuai.goods.mapper.GoodsMapper;
+import com.laidekuai.order.entity.HotStockPending;
+import com.laidekuai.order.mapper.HotStockPendingMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 热点商品库存预占（内存令牌桶）
+ *
+ * 对配置的热点商品，下单时先在内存中扣减令牌，令牌不足直接拒绝，不再争抢 goods 行锁；
+ * 扣减量在下单事务中写入 hot_stock_pending（只追加，无行锁竞争），定时批量写回 goods.stock 并删除，
+ * 写回后以数据库库存为准重新校准令牌（取消/超时释放的库存在校准时回到令牌桶）。
+ * 进程崩溃时未写回的扣减量仍在 hot_stock_pending 中，启动后写回，令牌按“库存 - 待写回”重建，不会超卖。
+ *
+ * 注意：令牌只存在于当前进程，仅适用于单实例部署；默认关闭。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+public class HotStockReservation {
+
+    private final GoodsMapper goodsMapper;
+
+    private final HotStockPendingMapper hotStockPendingMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final Set<Long> hotGoodsIds;
+
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 建桶（读库存与待写回量）与写回互斥，保证建桶时两者来自同一时刻；建桶之间互不阻塞
+     */
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    public HotStockReservation(GoodsMapper goodsMapper,
+                               HotStockPendingMapper hotStockPendingMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.order.hot-stock.enabled:false}") boolean enabled,
+                               @Value("${app.order.hot-stock.goods-ids:}") String goodsIds) {
+        this.goodsMapper = goodsMapper;
+        this.hotStockPendingMapper = hotStockPendingMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.hotGoodsIds = parseIds(goodsIds);
+        if (enabled) {
+            log.info("热点库存预占已启用, 商品: {}", hotGoodsIds);
+        }
+    }
+
+    /**
+     * 是否为热点商品（走内存预占）
+     */
+    public boolean isHot(Long goodsId) {
+        return enabled && goodsId != null && hotGoodsIds.contains(goodsId);
+    }
+
+    /**
+     * 批量预占（全部成功或全部不占）
+     *
+     * 预占成功后在当前事务中记录待写回扣减量；处于事务中时，事务未提交则自动归还。
+     *
+     * @param quantities goodsId -> 数量，只应包含热点商品
+     * @return 是否全部预占成功
+     */
+    public boolean reserveAll(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return true;
+        }
+        List<Map.Entry<Long, Integer>> acquired = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (!bucket(entry.getKey()).tryAcquire(entry.getValue())) {
+                for (Map.Entry<Long, Integer> done : acquired) {
+                    bucket(done.getKey()).giveBack(done.getValue());
+                }
+                return false;
+            }
+            acquired.add(entry);
+        }
+
+        Map<Long, Integer> reserved = new LinkedHashMap<>(quantities);
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reserved.forEach((goodsId, quantity) -> bucket(goodsId).giveBack(quantity));
+                    }
+                }
+            });
+        }
+        try {
+            reserved.forEach(this::recordPending);
+        } catch (RuntimeException e) {
+            if (!inTransaction) {
+                reserved.forEach((goodsId, quantity) -> bucket(goodsId).giveBack(quantity));
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * 启动时写回上次进程未写回的扣减量（与是否启用无关，避免关闭开关后遗留记录）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        try {
+            Map<Long, Integer> applied = applyAndReconcile();
+            if (!applied.isEmpty()) {
+                log.warn("已写回上次未完成的热点商品扣减量: {}", applied);
+            }
+        } catch (RuntimeException e) {
+            log.error("热点商品待写回扣减量恢复失败", e);
+        }
+    }
+
+    /**
+     * 批量写回已接受的扣减量，并按数据库库存校准令牌
+     */
+    @Scheduled(fixedDelayString = "${app.order.hot-stock.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            applyAndReconcile();
+        } catch (RuntimeException e) {
+            // 写回事务整体回滚，待写回记录保留到下次
+            log.error("热点商品库存写回失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 当前令牌快照
+     */
+    public Map<Long, Map<String, Integer>> snapshot() {
+        Map<Long, Map<String, Integer>> result = new LinkedHashMap<>();
+        buckets.forEach((goodsId, bucket) -> result.put(goodsId, bucket.snapshot()));
+        return result;
+    }
+
+    /**
+     * 首次访问时读库建桶：在 map 外读库再 putIfAbsent，不在 computeIfAbsent 的桶锁内做 I/O
+     * （否则会阻塞同一哈希槽的其它商品，虚拟线程下还会钉住载体线程）；并发初始化时以先写入者为准
+     */
+    private Bucket bucket(Long goodsId) {
+        Bucket bucket = buckets.get(goodsId);
+        if (bucket != null) {
+            return bucket;
+        }
+        flushLock.readLock().lock();
+        try {
+            Bucket loaded = new Bucket(loadAvailable(goodsId), loadPending(goodsId));
+            Bucket existing = buckets.putIfAbsent(goodsId, loaded);
+            return existing != null ? existing : loaded;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> applyAndReconcile() {
+        flushLock.writeLock().lock();
+        try {
+            Map<Long, Integer> applied = applyPending();
+            for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+                Bucket bucket = entry.getValue();
+                bucket.applied(applied.getOrDefault(entry.getKey(), 0));
+                bucket.reconcile(loadAvailable(entry.getKey()));
+            }
+            return applied;
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void recordPending(Long goodsId, Integer quantity) {
+        HotStockPending pending = new HotStockPending();
+        pending.setGoodsId(goodsId);
+        pending.setQuantity(quantity);
+        hotStockPendingMapper.insert(pending);
+    }
+
+    /**
+     * 在一个事务中把已提交的待写回记录按商品汇总写入 goods.stock，并按 ID 删除这些记录
+     * （按读到的 ID 删除，不会误删其间新提交的记录）
+     *
+     * @return goodsId -> 已写回的扣减量
+     */
+    private Map<Long, Integer> applyPending() {
+        Map<Long, Integer> applied = transactionTemplate.execute(status -> {
+            List<HotStockPending> rows = hotStockPendingMapper.selectList(null);
+            if (rows.isEmpty()) {
+                return Collections.<Long, Integer>emptyMap();
+            }
+            Map<Long, Integer> totals = new LinkedHashMap<>();
+            for (HotStockPending row : rows) {
+                totals.merge(row.getGoodsId(), row.getQuantity(), Integer::sum);
+            }
+            totals.forEach(goodsMapper::applyReservedStock);
+            hotStockPendingMapper.deleteBatchIds(rows.stream().map(HotStockPending::getId).toList());
+            return totals;
+        });
+        return applied != null ? applied : Collections.emptyMap();
+    }
+
+    private int loadPending(Long goodsId) {
+        LambdaQueryWrapper<HotStockPending> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(HotStockPending::getGoodsId, goodsId);
+        return hotStockPendingMapper.selectList(wrapper).stream().mapToInt(HotStockPending::getQuantity).sum();
+    }
+
+    private int loadAvailable(Long goodsId) {
+        Goods goods = goodsMapper.selectById(goodsId);
+        if (goods == null || goods.getStatus() != GoodsStatus.APPROVED || goods.getStock() == null) {
+            return 0;
+        }
+        return Math.max(goods.getStock(), 0);
+    }
+
+    private static Set<Long> parseIds(String goodsIds) {
+        if (!StringUtils.hasText(goodsIds)) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(goodsIds.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * 单个商品的令牌桶，每个商品独立加锁，临界区只有整数运算
+     */
+    private static final class Bucket {
+
+        /**
+         * 可预占令牌
+         */
+        private int available;
+
+        /**
+         * 已接受但尚未写回 goods.stock 的扣减量（含未提交事务的预占）
+         */
+        private int pending;
+
+        private Bucket(int dbStock, int pending) {
+            this.pending = pending;
+            this.available = Math.max(dbStock - pending, 0);
+        }
+
+        synchronized boolean tryAcquire(int quantity) {
+            if (quantity <= 0 || available < quantity) {
+                return false;
+            }
+            available -= quantity;
+            pending += quantity;
+            return true;
+        }
+
+        synchronized void giveBack(int quantity) {
+            available += quantity;
+            pending -= quantity;
+        }
+
+        synchronized void applied(int quantity) {
+            pending -= quantity;
+        }
+
+        /**
+         * 以数据库库存为准：可用 = 数据库库存 - 尚未写回的扣减量
+         */
+        synchronized void reconcile(int dbStock) {
+            available = Math.max(dbStock - pending, 0);
+        }
+
+        synchronized Map<String, Integer> snapshot() {
+            Map<String, Integer> result = new LinkedHashMap<>();
+            result.put("available", available);
+            result.put("pending", pending);
+            return result;
+        }
+    }
+}
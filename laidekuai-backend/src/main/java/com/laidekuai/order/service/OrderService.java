@@ -181,6 +181,14 @@ public interface OrderService {
      * @return 结果
      */
     Result<Void> cancelOrderSystem(Long orderId);
+
+    /**
+     * 系统批量取消超时订单（一个事务内：批量改状态、合并释放库存）
+     *
+     * @param orderIds 候选订单ID（仍需为 PENDING_PAY 才会被取消）
+     * @return 实际取消的订单数
+     */
+    int cancelOrdersSystemBatch(List<Long> orderIds);
 }
 
 
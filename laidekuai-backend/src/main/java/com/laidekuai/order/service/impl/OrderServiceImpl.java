@@ -10,6 +10,7 @@ import com.laidekuai.address.mapper.AddressMapper;
 import com.laidekuai.common.dto.ErrorCode;
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
+import com.laidekuai.common.scheduler.OrderExpiryQueue;
 import com.laidekuai.dispute.entity.Dispute;
 import com.laidekuai.dispute.mapper.DisputeMapper;
 import com.laidekuai.common.enums.GoodsStatus;
@@ -17,14 +18,16 @@ import com.laidekuai.common.util.OrderNoGenerator;
 import com.laidekuai.common.util.SecurityUtils;
 import com.laidekuai.goods.entity.Goods;
 import com.laidekuai.goods.mapper.GoodsMapper;
+import com.laidekuai.goods.service.GoodsImageCache;
 import com.laidekuai.order.dto.*;
 import com.laidekuai.order.entity.Order;
 import com.laidekuai.order.entity.OrderItem;
 import com.laidekuai.order.mapper.OrderItemMapper;
 import com.laidekuai.order.mapper.OrderMapper;
+import com.laidekuai.order.service.HotStockReservation;
 import com.laidekuai.order.service.OrderService;
 import com.laidekuai.user.entity.User;
-import com.laidekuai.user.mapper.UserMapper;
+import com.laidekuai.user.service.UserDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -51,9 +54,12 @@ public class OrderServiceImpl implements OrderService {
     private final GoodsMapper goodsMapper;
     private final AddressMapper addressMapper;
     private final OrderNoGenerator orderNoGenerator;
-    private final UserMapper userMapper;
+    private final UserDirectory userDirectory;
     private final DisputeMapper disputeMapper;
     private final AuditLogService auditLogService;
+    private final HotStockReservation hotStockReservation;
+    private final OrderExpiryQueue orderExpiryQueue;
+    private final GoodsImageCache goodsImageCache;
 
     /**
      * 娲昏穬璁㈠崟鏁颁笂闄?
@@ -113,6 +119,15 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
+        // 热点商品先在内存中预占库存，不足直接拒绝，不再争抢 goods 行锁
+        Map<Long, Integer> hotQuantities = normalizedItems.stream()
+                .filter(item -> hotStockReservation.isHot(item.getGoodsId()))
+                .collect(Collectors.toMap(OrderItemRequest::getGoodsId, OrderItemRequest::getQuantity));
+        if (!hotQuantities.isEmpty() && !hotStockReservation.reserveAll(hotQuantities)) {
+            log.warn("热点商品库存不足, 用户: {}, 商品: {}", userId, hotQuantities.keySet());
+            return Result.error(ErrorCode.STOCK_INSUFFICIENT);
+        }
+
         // 4. 按卖家分组
         Map<Long, List<OrderItemRequest>> sellerGroups = normalizedItems.stream()
                 .collect(Collectors.groupingBy(item -> goodsMap.get(item.getGoodsId()).getSellerId()));
@@ -126,6 +141,10 @@ public class OrderServiceImpl implements OrderService {
 
             // 5.1 鎵ｅ噺搴撳瓨锛堟潯浠禪PDATE闃茶秴鍗栵級
             for (OrderItemRequest item : items) {
+                if (hotQuantities.containsKey(item.getGoodsId())) {
+                    // 已在内存中预占，由 HotStockReservation 批量写回
+                    continue;
+                }
                 int rows = goodsMapper.deductStock(item.getGoodsId(), item.getQuantity());
                 if (rows == 0) {
                     log.error("鍟嗗搧 {} 搴撳瓨鎵ｅ噺澶辫触锛堝彲鑳藉凡琚叾浠栬鍗曟姠鍗狅級", item.getGoodsId());
@@ -158,6 +177,7 @@ public class OrderServiceImpl implements OrderService {
             order.setCreatedAt(LocalDateTime.now());
 
             orderMapper.insert(order);
+            orderExpiryQueue.schedule(order.getId(), order.getCreatedAt());
             log.info("鍒涘缓璁㈠崟鎴愬姛, 璁㈠崟鍙? {}, 鍗栧: {}, 閲戦: {}", order.getOrderNo(), sellerId, totalAmount);
 
             // 5.4 鍒涘缓璁㈠崟椤癸紙鍚揩鐓э級
@@ -171,7 +191,7 @@ public class OrderServiceImpl implements OrderService {
                 orderItem.setSellerId(sellerId);
                 orderItem.setGoodsTitle(goods.getTitle());
                 // 鑾峰彇绗竴寮犲浘鐗囦綔涓哄皝闈?
-                orderItem.setGoodsCover(getFirstImage(goods.getImageUrls()));
+                orderItem.setGoodsCover(goodsImageCache.cover(goods));
                 orderItem.setPrice(goods.getPrice());
                 orderItem.setQuantity(item.getQuantity());
                 orderItem.setAmount(goods.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
@@ -275,28 +295,12 @@ public class OrderServiceImpl implements OrderService {
 
         List<OrderItem> items = orderItemMapper.selectByOrderId(orderId);
         OrderDTO dto = OrderDTO.fromOrder(order, items);
-        dto.setBuyerName(resolveUserName(order.getBuyerId()));
-        dto.setSellerName(resolveUserName(order.getSellerId()));
+        Map<Long, User> users = userDirectory.resolve(Arrays.asList(order.getBuyerId(), order.getSellerId()));
+        dto.setBuyerName(UserDirectory.displayName(order.getBuyerId(), users.get(order.getBuyerId())));
+        dto.setSellerName(UserDirectory.displayName(order.getSellerId(), users.get(order.getSellerId())));
         return Result.success(dto);
     }
 
-    private String resolveUserName(Long userId) {
-        if (userId == null) {
-            return null;
-        }
-        User user = userMapper.selectById(userId);
-        if (user == null) {
-            return "用户" + userId;
-        }
-        if (StringUtils.hasText(user.getNickName())) {
-            return user.getNickName();
-        }
-        if (StringUtils.hasText(user.getUsername())) {
-            return user.getUsername();
-        }
-        return "用户" + userId;
-    }
-
     @Override
     public Result<PageResult<OrderDTO>> listBuyerOrders(Long userId, String status, Long page, Long size) {
         Page<Order> pageParam = new Page<>(page, size);
@@ -310,20 +314,7 @@ public class OrderServiceImpl implements OrderService {
 
         Page<Order> result = orderMapper.selectPage(pageParam, wrapper);
 
-        List<OrderDTO> dtos = result.getRecords().stream()
-                .map(order -> {
-                    List<OrderItem> items = orderItemMapper.selectByOrderId(order.getId());
-                    return OrderDTO.fromOrder(order, items);
-                })
-                .collect(Collectors.toList());
-
-        PageResult<OrderDTO> pageResult = new PageResult<>();
-        pageResult.setRecords(dtos);
-        pageResult.setTotal(result.getTotal());
-        pageResult.setCurrent(result.getCurrent());
-        pageResult.setSize(result.getSize());
-
-        return Result.success(pageResult);
+        return Result.success(assemblePage(result));
     }
 
     @Override
@@ -339,20 +330,7 @@ public class OrderServiceImpl implements OrderService {
 
         Page<Order> result = orderMapper.selectPage(pageParam, wrapper);
 
-        List<OrderDTO> dtos = result.getRecords().stream()
-                .map(order -> {
-                    List<OrderItem> items = orderItemMapper.selectByOrderId(order.getId());
-                    return OrderDTO.fromOrder(order, items);
-                })
-                .collect(Collectors.toList());
-
-        PageResult<OrderDTO> pageResult = new PageResult<>();
-        pageResult.setRecords(dtos);
-        pageResult.setTotal(result.getTotal());
-        pageResult.setCurrent(result.getCurrent());
-        pageResult.setSize(result.getSize());
-
-        return Result.success(pageResult);
+        return Result.success(assemblePage(result));
     }
 
     @Override
@@ -389,20 +367,42 @@ public class OrderServiceImpl implements OrderService {
 
         Page<Order> result = orderMapper.selectPage(pageParam, wrapper);
 
-        List<OrderDTO> dtos = result.getRecords().stream()
-                .map(order -> {
-                    List<OrderItem> items = orderItemMapper.selectByOrderId(order.getId());
-                    return OrderDTO.fromOrder(order, items);
-                })
+        return Result.success(assemblePage(result));
+    }
+
+    /**
+     * 组装订单分页结果：当前页订单项一次批量查询，再按订单ID在内存中分组
+     */
+    private PageResult<OrderDTO> assemblePage(Page<Order> page) {
+        List<Order> orders = page.getRecords();
+        Map<Long, List<OrderItem>> itemsByOrderId = loadItemsByOrderId(orders);
+
+        List<OrderDTO> dtos = orders.stream()
+                .map(order -> OrderDTO.fromOrder(order,
+                        itemsByOrderId.getOrDefault(order.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
 
         PageResult<OrderDTO> pageResult = new PageResult<>();
         pageResult.setRecords(dtos);
-        pageResult.setTotal(result.getTotal());
-        pageResult.setCurrent(result.getCurrent());
-        pageResult.setSize(result.getSize());
+        pageResult.setTotal(page.getTotal());
+        pageResult.setCurrent(page.getCurrent());
+        pageResult.setSize(page.getSize());
+        return pageResult;
+    }
 
-        return Result.success(pageResult);
+    private Map<Long, List<OrderItem>> loadItemsByOrderId(List<Order> orders) {
+        if (orders == null || orders.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> orderIds = orders.stream()
+                .map(Order::getId)
+                .collect(Collectors.toList());
+        List<OrderItem> items = orderItemMapper.selectByOrderIds(orderIds);
+        if (items == null || items.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return items.stream()
+                .collect(Collectors.groupingBy(OrderItem::getOrderId));
     }
 
     @Override
@@ -738,6 +738,38 @@ public class OrderServiceImpl implements OrderService {
         return Result.success();
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int cancelOrdersSystemBatch(List<Long> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            return 0;
+        }
+
+        // 先锁定仍可取消的订单，保证后续只为真正取消的订单释放库存
+        List<Long> lockedIds = orderMapper.selectPendingIdsForUpdate(orderIds);
+        if (lockedIds.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int canceled = orderMapper.markCanceledBatchIfPending(lockedIds, "TIMEOUT", now, now);
+
+        Map<Long, Integer> releaseQuantities = new LinkedHashMap<>();
+        for (OrderItem item : orderItemMapper.selectByOrderIds(lockedIds)) {
+            if (item.getGoodsId() != null && item.getQuantity() != null) {
+                releaseQuantities.merge(item.getGoodsId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        if (!releaseQuantities.isEmpty()) {
+            goodsMapper.releaseStockBatch(releaseQuantities);
+        }
+
+        orderItemMapper.updateStatusByOrderIds(lockedIds, "CANCELED");
+
+        log.info("系统批量取消超时订单 {} 笔，释放 {} 个商品的库存", canceled, releaseQuantities.size());
+        return canceled;
+    }
+
     private List<OrderItemRequest> mergeDuplicateItems(List<OrderItemRequest> items) {
         if (items == null || items.isEmpty()) {
             return Collections.emptyList();
@@ -761,29 +793,4 @@ public class OrderServiceImpl implements OrderService {
 
         return result;
     }
-
-    /**
-     * 浠嶫SON鏁扮粍鏍煎紡鐨勫浘鐗嘦RL涓幏鍙栫涓€寮犲浘鐗?
-     */
-    private String getFirstImage(String imageUrls) {
-        if (imageUrls == null || imageUrls.isEmpty()) {
-            return null;
-        }
-        // 绠€鍗曡В鏋怞SON鏁扮粍 ["url1","url2"]
-        if (imageUrls.startsWith("[") && imageUrls.endsWith("]")) {
-            String content = imageUrls.substring(1, imageUrls.length() - 1);
-            if (!content.isEmpty()) {
-                String[] urls = content.split(",");
-                if (urls.length > 0) {
-                    String first = urls[0].trim();
-                    // 鍘婚櫎寮曞彿
-                    if (first.startsWith("\"") && first.endsWith("\"")) {
-                        return first.substring(1, first.length() - 1);
-                    }
-                    return first;
-                }
-            }
-        }
-        return imageUrls;
-    }
 }
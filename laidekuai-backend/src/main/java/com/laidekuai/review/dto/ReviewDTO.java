@@ -47,7 +47,7 @@ public class ReviewDTO {
         dto.setSellerId(review.getSellerId());
         dto.setRating(review.getRating());
         dto.setContent(review.getContent());
-        dto.setIsAnonymous(review.getIsAnonymous() == 1);
+        dto.setIsAnonymous(review.getIsAnonymous() != null && review.getIsAnonymous() == 1);
         dto.setIsRefunded(review.getIsRefunded() != null && review.getIsRefunded() == 1);
         dto.setReply(review.getReply());
         dto.setReplyTime(review.getReplyTime());
@@ -55,7 +55,7 @@ public class ReviewDTO {
         dto.setStatus(review.getStatus());
 
         // 处理匿名
-        if (review.getIsAnonymous() == 1) {
+        if (review.getIsAnonymous() != null && review.getIsAnonymous() == 1) {
             dto.setBuyerName("匿名用户");
         } else {
             dto.setBuyerName(buyerNickname != null ? buyerNickname : "用户" + review.getBuyerId());
@@ -19,14 +19,19 @@ import com.laidekuai.review.entity.Review;
 import com.laidekuai.review.mapper.ReviewMapper;
 import com.laidekuai.review.service.ReviewService;
 import com.laidekuai.user.entity.User;
-import com.laidekuai.user.mapper.UserMapper;
+import com.laidekuai.user.service.UserDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -42,8 +47,8 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewMapper reviewMapper;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
-    private final UserMapper userMapper;
     private final GoodsMapper goodsMapper;
+    private final UserDirectory userDirectory;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -110,7 +115,7 @@ public class ReviewServiceImpl implements ReviewService {
         log.info("评价创建成功, ID: {}", review.getId());
 
         // 获取用户昵称
-        User user = userMapper.selectById(order.getBuyerId());
+        User user = userDirectory.get(order.getBuyerId());
         String nickname = user != null ? user.getNickName() : null;
         ReviewDTO dto = ReviewDTO.fromReview(review, nickname);
         Goods goods = goodsMapper.selectById(item.getGoodsId());
@@ -147,7 +152,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         log.info("评价 {} 回复成功", reviewId);
 
-        User user = userMapper.selectById(review.getBuyerId());
+        User user = userDirectory.get(review.getBuyerId());
         String nickname = user != null ? user.getNickName() : null;
 
         ReviewDTO dto = ReviewDTO.fromReview(review, nickname);
@@ -160,6 +165,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Result<PageResult<ReviewDTO>> listGoodsReviews(Long goodsId, Long page, Long size) {
         Page<Review> pageParam = new Page<>(page, size);
         LambdaQueryWrapper<Review> wrapper = new LambdaQueryWrapper<>();
@@ -170,13 +176,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         Page<Review> result = reviewMapper.selectPage(pageParam, wrapper);
 
-        List<ReviewDTO> dtos = result.getRecords().stream()
-                .map(review -> {
-                    User user = userMapper.selectById(review.getBuyerId());
-                    String nickname = user != null ? user.getNickName() : null;
-                    return ReviewDTO.fromReview(review, nickname);
-                })
-                .collect(Collectors.toList());
+        List<ReviewDTO> dtos = toReviewDTOs(result.getRecords(), false);
 
         PageResult<ReviewDTO> pageResult = new PageResult<>();
         pageResult.setRecords(dtos);
@@ -188,12 +188,14 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Result<Double> getGoodsRating(Long goodsId) {
         Double rating = reviewMapper.getAverageRatingByGoodsId(goodsId);
         return Result.success(rating != null ? rating : 0.0);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Result<PageResult<ReviewDTO>> listMyReviews(Long userId, Long page, Long size) {
         Page<Review> pageParam = new Page<>(page, size);
         LambdaQueryWrapper<Review> wrapper = new LambdaQueryWrapper<>();
@@ -204,18 +206,7 @@ public class ReviewServiceImpl implements ReviewService {
 
         Page<Review> result = reviewMapper.selectPage(pageParam, wrapper);
 
-        List<ReviewDTO> dtos = result.getRecords().stream()
-                .map(review -> {
-                    User user = userMapper.selectById(review.getBuyerId());
-                    String nickname = user != null ? user.getNickName() : null;
-                    ReviewDTO dto = ReviewDTO.fromReview(review, nickname);
-                    Goods goods = goodsMapper.selectById(review.getGoodsId());
-                    if (goods != null) {
-                        dto.setGoodsTitle(goods.getTitle());
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        List<ReviewDTO> dtos = toReviewDTOs(result.getRecords(), true);
 
         PageResult<ReviewDTO> pageResult = new PageResult<>();
         pageResult.setRecords(dtos);
@@ -227,6 +218,7 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Result<PageResult<ReviewDTO>> listAdminReviews(String status, Long page, Long size) {
         Page<Review> pageParam = new Page<>(page, size);
         LambdaQueryWrapper<Review> wrapper = new LambdaQueryWrapper<>();
@@ -237,18 +229,7 @@ public class ReviewServiceImpl implements ReviewService {
         wrapper.orderByDesc(Review::getCreatedAt);
 
         Page<Review> result = reviewMapper.selectPage(pageParam, wrapper);
-        List<ReviewDTO> dtos = result.getRecords().stream()
-                .map(review -> {
-                    User user = userMapper.selectById(review.getBuyerId());
-                    String nickname = user != null ? user.getNickName() : null;
-                    ReviewDTO dto = ReviewDTO.fromReview(review, nickname);
-                    Goods goods = goodsMapper.selectById(review.getGoodsId());
-                    if (goods != null) {
-                        dto.setGoodsTitle(goods.getTitle());
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        List<ReviewDTO> dtos = toReviewDTOs(result.getRecords(), true);
 
         PageResult<ReviewDTO> pageResult = new PageResult<>();
         pageResult.setRecords(dtos);
@@ -259,6 +240,42 @@ public class ReviewServiceImpl implements ReviewService {
         return Result.success(pageResult);
     }
 
+    /**
+     * 批量组装评价 DTO：买家昵称与商品标题各一次批量查询
+     */
+    private List<ReviewDTO> toReviewDTOs(List<Review> reviews, boolean withGoodsTitle) {
+        if (reviews.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, User> users = userDirectory.resolve(reviews.stream()
+                .map(Review::getBuyerId)
+                .collect(Collectors.toSet()));
+
+        Map<Long, String> goodsTitles = Collections.emptyMap();
+        if (withGoodsTitle) {
+            Set<Long> goodsIds = reviews.stream()
+                    .map(Review::getGoodsId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            if (!goodsIds.isEmpty()) {
+                goodsTitles = goodsMapper.selectBatchIds(goodsIds).stream()
+                        .filter(goods -> goods.getTitle() != null)
+                        .collect(Collectors.toMap(Goods::getId, Goods::getTitle, (a, b) -> a));
+            }
+        }
+
+        List<ReviewDTO> dtos = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            User user = users.get(review.getBuyerId());
+            ReviewDTO dto = ReviewDTO.fromReview(review, user != null ? user.getNickName() : null);
+            if (withGoodsTitle) {
+                dto.setGoodsTitle(goodsTitles.get(review.getGoodsId()));
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
     private LocalDateTime resolveReviewBaseTime(Order order) {
         if ("COMPLETED".equals(order.getStatus())) {
             if (order.getSettledTime() != null) {
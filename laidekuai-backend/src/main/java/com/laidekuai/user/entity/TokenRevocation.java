@@ -0,0 +1,31 @@
+package com.laidekuai.user.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户 token 吊销记录
+ */
+@Data
+@TableName("token_revocation")
+public class TokenRevocation {
+
+    @TableId(value = "user_id", type = IdType.INPUT)
+    private Long userId;
+
+    /**
+     * 签发时间早于该时间的 token 失效
+     */
+    private LocalDateTime revokedBefore;
+
+    /**
+     * 吊销原因（PASSWORD_CHANGED / PASSWORD_RESET / USER_DISABLED）
+     */
+    private String reason;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,45 @@
+package com.laidekuai.user.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.laidekuai.user.entity.TokenRevocation;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * token 吊销Mapper
+ *
+ * @author Laidekuai Team
+ */
+@Mapper
+public interface TokenRevocationMapper extends BaseMapper<TokenRevocation> {
+
+    /**
+     * 写入或推进用户的吊销时间（只前进不后退）
+     *
+     * @param userId        用户ID
+     * @param revokedBefore 吊销时间
+     * @param reason        原因
+     * @return 影响行数
+     */
+    int upsert(@Param("userId") Long userId,
+               @Param("revokedBefore") LocalDateTime revokedBefore,
+               @Param("reason") String reason);
+
+    /**
+     * 查询 updated_at 不早于指定时间的吊销记录
+     *
+     * @param since 起始时间（数据库时间）
+     * @return 吊销记录
+     */
+    List<TokenRevocation> selectUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 数据库当前时间（与 updated_at 同源，用作增量同步的水位）
+     *
+     * @return 当前时间
+     */
+    LocalDateTime selectDbNow();
+}
@@ -0,0 +1,90 @@
+package com.laidekuai.user.service;
+
+import com.laidekuai.common.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 登录失败限流（按用户名、按 IP 的固定窗口计数）
+ *
+ * 窗口内失败次数达到上限后，直接拒绝该用户名/IP 的登录请求，不再进行 BCrypt 计算。
+ * 计数表有界（BoundedCache，窗口结束后过期清理），只保存在当前进程。
+ *
+ * @author Laidekuai Team
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private final int maxFailuresPerUser;
+
+    private final int maxFailuresPerIp;
+
+    private final long windowMillis;
+
+    private final BoundedCache<String, Window> windows;
+
+    public LoginAttemptLimiter(@Value("${app.auth.login-throttle.max-failures-per-user:5}") int maxFailuresPerUser,
+                               @Value("${app.auth.login-throttle.max-failures-per-ip:20}") int maxFailuresPerIp,
+                               @Value("${app.auth.login-throttle.window-seconds:900}") long windowSeconds,
+                               @Value("${app.auth.login-throttle.max-tracked:10000}") int maxTracked) {
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.windowMillis = windowSeconds * 1000L;
+        this.windows = new BoundedCache<>(maxTracked, windowMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * 用户名或 IP 是否已被限流
+     */
+    public boolean isBlocked(String username, String ip) {
+        long now = System.currentTimeMillis();
+        return exceeded(userKey(username), maxFailuresPerUser, now)
+                || exceeded(ipKey(ip), maxFailuresPerIp, now);
+    }
+
+    public void recordFailure(String username, String ip) {
+        long now = System.currentTimeMillis();
+        increment(userKey(username), now);
+        increment(ipKey(ip), now);
+    }
+
+    /**
+     * 登录成功后清除该用户名的失败计数（IP 计数保留，防止用一个账号掩护撞库）
+     */
+    public void recordSuccess(String username) {
+        String key = userKey(username);
+        if (key == null) {
+            return;
+        }
+        windows.remove(key);
+    }
+
+    private boolean exceeded(String key, int limit, long now) {
+        if (key == null || limit <= 0) {
+            return false;
+        }
+        Window window = windows.get(key);
+        return window != null && now - window.startedAt() < windowMillis && window.failures() >= limit;
+    }
+
+    private void increment(String key, long now) {
+        if (key == null) {
+            return;
+        }
+        windows.compute(key, (k, window) -> window == null || now - window.startedAt() >= windowMillis
+                ? new Window(now, 1)
+                : new Window(window.startedAt(), window.failures() + 1));
+    }
+
+    private static String userKey(String username) {
+        return StringUtils.hasText(username) ? "u:" + username : null;
+    }
+
+    private static String ipKey(String ip) {
+        return StringUtils.hasText(ip) ? "ip:" + ip : null;
+    }
+
+    private record Window(long startedAt, int failures) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.laidekuai.user.service;
+
+import com.laidekuai.common.dto.ErrorCode;
+import com.laidekuai.common.exception.BusinessException;
+import com.laidekuai.common.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt 密码哈希（独立有界线程池）
+ *
+ * 哈希计算放到固定大小的线程池中执行，同时进行的 BCrypt 计算数不超过线程数；
+ * 排队已满时立即抛出 TooManyRequestsException（HTTP 429），不让登录洪峰拖垮所有请求线程。
+ * 哈希成本由 app.auth.bcrypt.strength 配置，成本不同的旧哈希在登录成功后重新计算。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final int strength;
+
+    private final long timeoutMs;
+
+    private final BCryptPasswordEncoder encoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong rejected = new AtomicLong(0);
+
+    public PasswordHasher(@Value("${app.auth.bcrypt.strength:10}") int strength,
+                          @Value("${app.auth.hash.threads:0}") int threads,
+                          @Value("${app.auth.hash.queue-capacity:64}") int queueCapacity,
+                          @Value("${app.auth.hash.timeout-ms:5000}") long timeoutMs) {
+        this.strength = strength;
+        this.timeoutMs = timeoutMs;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger index = new AtomicInteger(0);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 校验密码
+     */
+    public boolean matches(String rawPassword, String passwordHash) {
+        if (rawPassword == null || passwordHash == null) {
+            return false;
+        }
+        return run(() -> encoder.matches(rawPassword, passwordHash));
+    }
+
+    /**
+     * 按配置的成本计算哈希
+     */
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * 哈希成本与配置不一致时需要重新计算
+     */
+    public boolean needsRehash(String passwordHash) {
+        if (passwordHash == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(passwordHash);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * 正在执行的校验任务数
+     */
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * 排队中的校验任务数
+     */
+    public int queuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 线程池已满被拒绝的请求数（累计）
+     */
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("strength", strength);
+        result.put("poolSize", executor.getMaximumPoolSize());
+        result.put("active", executor.getActiveCount());
+        result.put("queued", executor.getQueue().size());
+        result.put("completed", executor.getCompletedTaskCount());
+        result.put("rejected", rejected.get());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("密码校验线程池已满, 拒绝请求");
+            throw new TooManyRequestsException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException(ErrorCode.TOO_MANY_REQUESTS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new BusinessException(ErrorCode.INTERNAL_ERROR);
+        }
+    }
+}
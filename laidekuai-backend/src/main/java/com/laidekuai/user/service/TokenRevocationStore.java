@@ -0,0 +1,158 @@
+package com.laidekuai.user.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.laidekuai.user.entity.TokenRevocation;
+import com.laidekuai.user.mapper.TokenRevocationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 用户级 token 吊销表
+ *
+ * 改密、重置密码、禁用用户时记录 revoked_before，签发时间更早的 token 立即失效。
+ * 每个用户只有一条记录，全部放在内存 Map 中，过滤器的判断是一次哈希查找，不访问数据库；
+ * 数据库表用于重启恢复和多实例同步（定时增量拉取）。超过 token 有效期的记录不再加载。
+ *
+ * 增量同步的水位只取数据库时间（查询前的 NOW(3)），不用本机时钟；每次回看 sync-overlap-ms，
+ * 覆盖“upsert 之后才提交”的事务，重复拉到的记录按最大值合并，不影响结果。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore {
+
+    private final TokenRevocationMapper tokenRevocationMapper;
+
+    private final long tokenTtlMillis;
+
+    private final long syncOverlapMillis;
+
+    /**
+     * userId -> revoked_before（毫秒）
+     */
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    /**
+     * 上次同步开始时的数据库时间
+     */
+    private volatile LocalDateTime syncedUntil;
+
+    public TokenRevocationStore(TokenRevocationMapper tokenRevocationMapper,
+                                @Value("${app.jwt.expiration}") long tokenTtlMillis,
+                                @Value("${app.jwt.revocation.sync-overlap-ms:60000}") long syncOverlapMillis) {
+        this.tokenRevocationMapper = tokenRevocationMapper;
+        this.tokenTtlMillis = tokenTtlMillis;
+        this.syncOverlapMillis = syncOverlapMillis;
+    }
+
+    /**
+     * 吊销用户此前签发的所有 token；处于事务中时提交后才在内存生效
+     */
+    public void revoke(Long userId, String reason) {
+        if (userId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        tokenRevocationMapper.upsert(userId, now, reason);
+        long revokedAt = toMillis(now);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, revokedAt);
+                }
+            });
+        } else {
+            apply(userId, revokedAt);
+        }
+        log.info("已吊销用户 {} 的登录凭证, 原因: {}", userId, reason);
+    }
+
+    /**
+     * token 是否已被吊销
+     *
+     * JWT 的签发时间只精确到秒，因此按秒比较：与吊销同一秒内签发的 token（如改密后立即重新登录）仍然有效。
+     *
+     * @param userId         用户ID
+     * @param issuedAtMillis token 签发时间（毫秒）
+     */
+    public boolean isRevoked(Long userId, long issuedAtMillis) {
+        if (userId == null) {
+            return false;
+        }
+        Long revokedAt = revokedBefore.get(userId);
+        return revokedAt != null && issuedAtMillis / 1000 < revokedAt / 1000;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime horizon = LocalDateTime.now().minusNanos(tokenTtlMillis * 1_000_000L);
+        LambdaQueryWrapper<TokenRevocation> wrapper = new LambdaQueryWrapper<>();
+        wrapper.gt(TokenRevocation::getRevokedBefore, horizon);
+        sync(() -> tokenRevocationMapper.selectList(wrapper));
+    }
+
+    /**
+     * 增量同步其他实例写入的吊销记录，并清理已超过 token 有效期的内存条目
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        long horizon = System.currentTimeMillis() - tokenTtlMillis;
+        revokedBefore.values().removeIf(revokedAt -> revokedAt < horizon);
+
+        LocalDateTime since = syncedUntil;
+        if (since == null) {
+            load();
+            return;
+        }
+        // 回看一段时间：upsert 写入 updated_at 后事务可能稍晚才提交
+        LocalDateTime from = since.minusNanos(syncOverlapMillis * 1_000_000L);
+        sync(() -> tokenRevocationMapper.selectUpdatedSince(from));
+    }
+
+    /**
+     * 先取数据库时间再查询，成功后以该时间作为下次同步的水位
+     */
+    private void sync(Supplier<List<TokenRevocation>> query) {
+        LocalDateTime dbNow;
+        List<TokenRevocation> rows;
+        try {
+            dbNow = tokenRevocationMapper.selectDbNow();
+            rows = query.get();
+        } catch (RuntimeException e) {
+            log.warn("同步 token 吊销记录失败: {}", e.getMessage());
+            return;
+        }
+        for (TokenRevocation row : rows) {
+            if (row.getUserId() == null || row.getRevokedBefore() == null) {
+                continue;
+            }
+            apply(row.getUserId(), toMillis(row.getRevokedBefore()));
+        }
+        if (dbNow != null) {
+            syncedUntil = dbNow;
+        }
+    }
+
+    private void apply(Long userId, long revokedAt) {
+        revokedBefore.merge(userId, revokedAt, Math::max);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,197 @@
+package com.laidekuai.user.service;
+
+import com.laidekuai.common.util.BoundedCache;
+import com.laidekuai.user.entity.User;
+import com.laidekuai.user.mapper.UserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 用户信息目录（DTO 组装时的昵称/头像解析）
+ *
+ * 查找顺序：请求内缓存 -> 进程内有界缓存（TTL） -> 一次 selectBatchIds 批量查询。
+ * 只缓存展示所需的字段（ID、用户名、昵称、头像），不缓存密码等敏感信息。
+ *
+ * @author Laidekuai Team
+ */
+@Slf4j
+@Component
+public class UserDirectory {
+
+    private static final String REQUEST_ATTR = UserDirectory.class.getName() + ".users";
+
+    private final UserMapper userMapper;
+
+    private final boolean cacheEnabled;
+
+    private final BoundedCache<Long, User> cache;
+
+    public UserDirectory(UserMapper userMapper,
+                         @Value("${app.user-directory.cache.enabled:true}") boolean cacheEnabled,
+                         @Value("${app.user-directory.cache.max-size:10000}") int maxSize,
+                         @Value("${app.user-directory.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userMapper = userMapper;
+        this.cacheEnabled = cacheEnabled && maxSize > 0 && ttlSeconds > 0;
+        this.cache = new BoundedCache<>(maxSize, ttlSeconds * 1000L, System::currentTimeMillis);
+    }
+
+    /**
+     * 批量解析用户，返回 userId -> User（不存在的用户不在结果中）
+     */
+    public Map<Long, User> resolve(Collection<Long> userIds) {
+        Map<Long, User> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, User> requestMemo = requestMemo();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null || result.containsKey(userId)) {
+                continue;
+            }
+            if (requestMemo != null && requestMemo.containsKey(userId)) {
+                putIfPresent(result, userId, requestMemo.get(userId));
+                continue;
+            }
+            User cached = getCached(userId);
+            if (cached != null) {
+                result.put(userId, cached);
+                if (requestMemo != null) {
+                    requestMemo.put(userId, cached);
+                }
+                continue;
+            }
+            missing.add(userId);
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, User> loaded = new HashMap<>();
+            for (User user : userMapper.selectBatchIds(missing)) {
+                if (user != null && user.getId() != null) {
+                    loaded.put(user.getId(), slim(user));
+                }
+            }
+            for (Long userId : missing) {
+                User user = loaded.get(userId);
+                putIfPresent(result, userId, user);
+                if (requestMemo != null) {
+                    // 不存在的用户也记下来，避免同一请求内重复查询
+                    requestMemo.put(userId, user);
+                }
+                if (user != null) {
+                    putCached(userId, user);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 解析单个用户
+     */
+    public User get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return resolve(Set.of(userId)).get(userId);
+    }
+
+    /**
+     * 用户资料变更后失效缓存
+     *
+     * 立即移除，若处于事务中则在事务结束后再移除一次，避免提交前并发读把旧资料写回缓存。
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 展示名称：昵称 -> 用户名 -> "用户" + ID
+     */
+    public static String displayName(Long userId, User user) {
+        if (userId == null) {
+            return null;
+        }
+        if (user != null) {
+            if (StringUtils.hasText(user.getNickName())) {
+                return user.getNickName();
+            }
+            if (StringUtils.hasText(user.getUsername())) {
+                return user.getUsername();
+            }
+        }
+        return "用户" + userId;
+    }
+
+    private void remove(Long userId) {
+        cache.remove(userId);
+        Map<Long, User> requestMemo = requestMemo();
+        if (requestMemo != null) {
+            requestMemo.remove(userId);
+        }
+    }
+
+    private User getCached(Long userId) {
+        return cacheEnabled ? cache.get(userId) : null;
+    }
+
+    private void putCached(Long userId, User user) {
+        if (cacheEnabled) {
+            cache.put(userId, user);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, User> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object memo = attributes.getAttribute(REQUEST_ATTR, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<Long, User>();
+            attributes.setAttribute(REQUEST_ATTR, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Long, User>) memo;
+    }
+
+    private static void putIfPresent(Map<Long, User> result, Long userId, User user) {
+        if (user != null) {
+            result.put(userId, user);
+        }
+    }
+
+    private static User slim(User source) {
+        User user = new User();
+        user.setId(source.getId());
+        user.setUsername(source.getUsername());
+        user.setNickName(source.getNickName());
+        user.setAvatarUrl(source.getAvatarUrl());
+        return user;
+    }
+}
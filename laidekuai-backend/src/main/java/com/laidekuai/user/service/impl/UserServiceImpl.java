@@ -1,6 +1,7 @@
 package com.laidekuai.user.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.laidekuai.common.dto.ErrorCode;
 import com.laidekuai.common.dto.PageResult;
@@ -11,6 +12,7 @@ import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.dto.UserUpdateRequest;
 import com.laidekuai.common.enums.Role;
 import com.laidekuai.common.exception.BusinessException;
+import com.laidekuai.common.exception.TooManyRequestsException;
 import com.laidekuai.common.util.JwtUtil;
 import com.laidekuai.goods.mapper.GoodsMapper;
 import com.laidekuai.order.entity.Order;
@@ -19,14 +21,20 @@ import com.laidekuai.order.mapper.OrderItemMapper;
 import com.laidekuai.order.mapper.OrderMapper;
 import com.laidekuai.user.entity.User;
 import com.laidekuai.user.mapper.UserMapper;
+import com.laidekuai.user.service.LoginAttemptLimiter;
+import com.laidekuai.user.service.PasswordHasher;
+import com.laidekuai.user.service.TokenRevocationStore;
+import com.laidekuai.user.service.UserDirectory;
 import com.laidekuai.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -46,7 +54,10 @@ public class UserServiceImpl implements UserService {
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
     private final GoodsMapper goodsMapper;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final UserDirectory userDirectory;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final PasswordHasher passwordHasher;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
     @Value("${admin.reset.default-password:123456}")
     private String defaultPassword;
@@ -66,7 +77,7 @@ public class UserServiceImpl implements UserService {
         // 2. 创建用户
         User user = new User();
         user.setUsername(request.getUsername());
-        String encodedPassword = passwordEncoder.encode(request.getPassword());
+        String encodedPassword = passwordHasher.encode(request.getPassword());
         user.setPasswordHash(encodedPassword);
         user.setNickName(StringUtils.hasText(request.getNickName()) ? request.getNickName() : request.getUsername());
         user.setRole(Role.BUYER);  // 默认角色为BUYER
@@ -94,24 +105,35 @@ public class UserServiceImpl implements UserService {
     public Result<LoginResult> login(LoginRequest request) {
         log.info("用户登录，用户名: {}", request.getUsername());
 
+        // 0. 失败次数限流（被限流时不再进行 BCrypt 计算）
+        String clientIp = clientIp();
+        if (loginAttemptLimiter.isBlocked(request.getUsername(), clientIp)) {
+            log.warn("登录被限流，用户名: {}, IP: {}", request.getUsername(), clientIp);
+            throw new TooManyRequestsException(ErrorCode.LOGIN_THROTTLED);
+        }
+
         // 1. 查询用户
         User user = getUserByUsername(request.getUsername());
         if (user == null) {
             log.warn("用户不存在: {}", request.getUsername());
+            loginAttemptLimiter.recordFailure(request.getUsername(), clientIp);
             return Result.error(ErrorCode.USER_NOT_FOUND);
         }
 
-        // 2. 验证密码
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        // 2. 验证密码（在独立的有界线程池中执行）
+        if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
             log.warn("密码错误，用户名: {}", request.getUsername());
+            loginAttemptLimiter.recordFailure(request.getUsername(), clientIp);
             return Result.error(ErrorCode.PASSWORD_ERROR);
         }
 
-        // 3. 检查用户状态
+        // 3. 检查用户状态（禁用账号不清除失败计数、不重算哈希）
         if (!"ACTIVE".equals(user.getStatus())) {
             log.warn("用户已被禁用，用户名: {}", request.getUsername());
             return Result.error(ErrorCode.USER_DISABLED);
         }
+        loginAttemptLimiter.recordSuccess(request.getUsername());
+        rehashIfNeeded(user, request.getPassword());
 
         // 4. 生成JWT token
         String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole().name());
@@ -194,8 +216,9 @@ public class UserServiceImpl implements UserService {
             user.setAvatarUrl(request.getAvatarUrl());
         }
 
-        // 4. 保存到数据库
+        // 4. 保存到数据库，并失效昵称/头像缓存
         userMapper.updateById(user);
+        userDirectory.invalidate(userId);
 
         log.info("用户信息更新成功，用户ID: {}", userId);
 
@@ -222,14 +245,15 @@ public class UserServiceImpl implements UserService {
         }
 
         // 3. 验证旧密码
-        if (!passwordEncoder.matches(request.getOldPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.getOldPassword(), user.getPasswordHash())) {
             log.warn("旧密码错误，用户ID: {}", userId);
             return Result.error(ErrorCode.PASSWORD_ERROR);
         }
 
         // 4. 更新密码
-        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        user.setPasswordHash(passwordHasher.encode(request.getNewPassword()));
         userMapper.updateById(user);
+        tokenRevocationStore.revoke(userId, "PASSWORD_CHANGED");
 
         log.info("密码修改成功，用户ID: {}", userId);
 
@@ -351,6 +375,7 @@ public class UserServiceImpl implements UserService {
         user.setStatus("DISABLED");
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.updateById(user);
+        tokenRevocationStore.revoke(userId, "USER_DISABLED");
 
         return Result.success();
     }
@@ -382,9 +407,37 @@ public class UserServiceImpl implements UserService {
         if (user == null) {
             return Result.error(ErrorCode.USER_NOT_FOUND);
         }
-        user.setPasswordHash(passwordEncoder.encode(defaultPassword));
+        user.setPasswordHash(passwordHasher.encode(defaultPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.updateById(user);
+        tokenRevocationStore.revoke(userId, "PASSWORD_RESET");
         return Result.success();
     }
+
+    /**
+     * 哈希成本与配置不一致时，用本次登录的明文重新计算（失败不影响登录）
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        try {
+            LambdaUpdateWrapper<User> wrapper = new LambdaUpdateWrapper<>();
+            wrapper.eq(User::getId, user.getId())
+                    .eq(User::getPasswordHash, user.getPasswordHash())
+                    .set(User::getPasswordHash, passwordHasher.encode(rawPassword));
+            userMapper.update(null, wrapper);
+            log.info("用户 {} 密码哈希已按新成本重新计算", user.getId());
+        } catch (RuntimeException e) {
+            log.warn("用户 {} 密码哈希重算失败: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    private static String clientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
 }
@@ -0,0 +1,8 @@
+-- 用户级 token 吊销：签发时间早于 revoked_before 的 token 一律失效
+CREATE TABLE token_revocation (
+  user_id BIGINT PRIMARY KEY,
+  revoked_before DATETIME(3) NOT NULL,
+  reason VARCHAR(50),
+  updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  INDEX idx_token_revocation_updated_at (updated_at)
+);
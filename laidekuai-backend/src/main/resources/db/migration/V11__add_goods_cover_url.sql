@@ -0,0 +1,9 @@
+-- 商品封面冗余列：image_urls 第一张图片，列表与购物车/订单快照不再解析 JSON
+ALTER TABLE goods ADD COLUMN cover_url VARCHAR(255) NULL AFTER image_urls;
+
+UPDATE goods
+SET cover_url = JSON_UNQUOTE(JSON_EXTRACT(image_urls, '$[0]'))
+WHERE cover_url IS NULL
+  AND image_urls IS NOT NULL
+  AND JSON_VALID(image_urls)
+  AND JSON_LENGTH(image_urls) > 0;
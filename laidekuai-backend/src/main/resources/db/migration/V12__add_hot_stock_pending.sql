@@ -0,0 +1,8 @@
+-- 热点商品已接受但尚未写回 goods.stock 的扣减量：随下单事务写入，批量写回时删除，进程崩溃也不丢失
+CREATE TABLE hot_stock_pending (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  goods_id BIGINT NOT NULL,
+  quantity INT NOT NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  INDEX idx_hot_stock_pending_goods (goods_id)
+);
@@ -0,0 +1,2 @@
+-- 购物车行版本：同步修改时 +1，写回日志恢复时据此判断记录在日志之后是否被修改过
+ALTER TABLE cart ADD COLUMN version BIGINT NOT NULL DEFAULT 0 AFTER quantity;
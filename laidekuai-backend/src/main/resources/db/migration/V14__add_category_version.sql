@@ -0,0 +1,7 @@
+-- 分类树版本：每次分类写操作在同一事务内 +1，各实例据此判断分类树快照是否过期
+CREATE TABLE category_version (
+  id TINYINT PRIMARY KEY,
+  version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO category_version (id, version) VALUES (1, 0);
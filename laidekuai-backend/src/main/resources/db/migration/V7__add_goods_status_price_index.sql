@@ -0,0 +1,2 @@
+-- 游标分页按价格排序时的 seek 索引（按创建时间排序使用已有的 idx_goods_status_created）
+ALTER TABLE goods ADD INDEX idx_goods_status_price (status, price);
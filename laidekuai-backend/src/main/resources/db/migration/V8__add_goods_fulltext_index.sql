@@ -0,0 +1,2 @@
+-- 商品全文检索索引：ngram 分词支持中文标题/详情任意位置匹配
+ALTER TABLE goods ADD FULLTEXT INDEX ft_goods_text (title, sub_title, detail) WITH PARSER ngram;
@@ -0,0 +1,15 @@
+-- 分类物化路径：/根ID/.../自身ID/，用于循环引用校验、子树查询和面包屑
+ALTER TABLE category ADD COLUMN path VARCHAR(255) NULL AFTER level;
+
+UPDATE category SET path = CONCAT('/', id, '/') WHERE parent_id IS NULL;
+
+-- 分类最多 3 级，逐级回填
+UPDATE category c JOIN category p ON c.parent_id = p.id
+SET c.path = CONCAT(p.path, c.id, '/')
+WHERE c.path IS NULL AND p.path IS NOT NULL;
+
+UPDATE category c JOIN category p ON c.parent_id = p.id
+SET c.path = CONCAT(p.path, c.id, '/')
+WHERE c.path IS NULL AND p.path IS NOT NULL;
+
+ALTER TABLE category ADD INDEX idx_category_path (path);
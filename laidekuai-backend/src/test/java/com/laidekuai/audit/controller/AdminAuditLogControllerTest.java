@@ -5,6 +5,7 @@ import com.laidekuai.audit.service.AuditLogService;
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -33,6 +34,9 @@ class AdminAuditLogControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
     @Test
     void listLogs_ReturnsPage() throws Exception {
         AuditLogDTO dto = new AuditLogDTO();
@@ -2,18 +2,24 @@ package com.laidekuai.cart.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.laidekuai.cart.dto.AddToCartRequest;
+import com.laidekuai.cart.dto.CartBatchRequest;
 import com.laidekuai.cart.dto.UpdateCartRequest;
 import com.laidekuai.cart.entity.Cart;
 import com.laidekuai.cart.mapper.CartMapper;
 import com.laidekuai.cart.service.impl.CartServiceImpl;
+import com.laidekuai.common.dto.ErrorCode;
 import com.laidekuai.common.enums.GoodsStatus;
 import com.laidekuai.goods.entity.Goods;
 import com.laidekuai.goods.mapper.GoodsMapper;
+import com.laidekuai.goods.service.GoodsDetailCache;
+import com.laidekuai.goods.service.GoodsImageCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.Serializable;
@@ -21,9 +27,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -40,8 +49,14 @@ class CartServiceTest {
     @Mock
     private GoodsMapper goodsMapper;
 
+    @Spy
+    private GoodsImageCache goodsImageCache = new GoodsImageCache(new ObjectMapper(), 100);
+
+    @Mock
+    private GoodsDetailCache goodsDetailCache;
+
     @Mock
-    private ObjectMapper objectMapper;
+    private CartWriteBehindStore cartWriteBehindStore;
 
     @InjectMocks
     private CartServiceImpl cartService;
@@ -281,7 +296,7 @@ class CartServiceTest {
     void testGetMyCart_Success() {
         // Given
         when(cartMapper.selectList(any())).thenReturn(Arrays.asList(testCart));
-        when(goodsMapper.selectById(1L)).thenReturn(testGoods);
+        when(goodsMapper.selectBatchIds(List.of(1L))).thenReturn(List.of(testGoods));
 
         // When
         var result = cartService.getMyCart(100L);
@@ -290,6 +305,34 @@ class CartServiceTest {
         assertTrue(result.isSuccess());
         assertEquals(1, result.getData().size());
         assertEquals("测试商品", result.getData().get(0).getGoodsTitle());
+        assertFalse(result.getData().get(0).getPriceChanged());
+        assertTrue(result.getData().get(0).getAvailable());
+        verify(goodsMapper, never()).selectById(any(Serializable.class));
+    }
+
+    @Test
+    void testGetMyCart_ReportsDriftInOneQuery() {
+        // Given: 同一商品两条记录只查一次；价格上涨、库存不足
+        Cart second = new Cart();
+        second.setId(2L);
+        second.setUserId(100L);
+        second.setGoodsId(1L);
+        second.setGoodsPrice(new BigDecimal("99.99"));
+        second.setQuantity(200);
+        testGoods.setPrice(new BigDecimal("109.99"));
+        when(cartMapper.selectList(any())).thenReturn(Arrays.asList(testCart, second));
+        when(goodsMapper.selectBatchIds(List.of(1L))).thenReturn(List.of(testGoods));
+
+        // When
+        var result = cartService.getMyCart(100L);
+
+        // Then
+        assertTrue(result.getData().get(0).getPriceChanged());
+        assertEquals(new BigDecimal("109.99"), result.getData().get(0).getCurrentPrice());
+        assertTrue(result.getData().get(0).getAvailable());
+        assertFalse(result.getData().get(1).getAvailable());
+        assertEquals("url1", result.getData().get(1).getGoodsImage());
+        verify(goodsMapper, times(1)).selectBatchIds(any());
     }
 
     @Test
@@ -309,7 +352,7 @@ class CartServiceTest {
     void testGetMyCart_GoodsDeleted() {
         // Given
         when(cartMapper.selectList(any())).thenReturn(Arrays.asList(testCart));
-        when(goodsMapper.selectById(1L)).thenReturn(null);
+        when(goodsMapper.selectBatchIds(List.of(1L))).thenReturn(List.of());
 
         // When
         var result = cartService.getMyCart(100L);
@@ -323,21 +366,22 @@ class CartServiceTest {
     @Test
     void testClearCart_Success() {
         // Given
-        when(cartMapper.selectList(any())).thenReturn(Arrays.asList(testCart));
-        when(cartMapper.deleteById((Serializable) 1L)).thenReturn(1);
+        when(cartMapper.delete(any())).thenReturn(1);
 
         // When
         var result = cartService.clearCart(100L);
 
         // Then
         assertTrue(result.isSuccess());
-        verify(cartMapper, times(1)).deleteById((Serializable) 1L);
+        verify(cartMapper, times(1)).delete(any());
+        verify(cartMapper, never()).selectList(any());
+        verify(cartMapper, never()).deleteById(any(Serializable.class));
     }
 
     @Test
     void testClearCart_EmptyCart() {
         // Given
-        when(cartMapper.selectList(any())).thenReturn(Collections.emptyList());
+        when(cartMapper.delete(any())).thenReturn(0);
 
         // When
         var result = cartService.clearCart(100L);
@@ -346,4 +390,84 @@ class CartServiceTest {
         assertTrue(result.isSuccess());
         verify(cartMapper, never()).deleteById(any(Serializable.class));
     }
+
+    @Test
+    void testBatchUpsert_MergesItemsIntoOneStatement() {
+        // Given: 同一商品出现两次，已有 2 件
+        CartBatchRequest request = new CartBatchRequest();
+        request.setItems(List.of(item(1L, 1), item(1L, 2)));
+        when(goodsMapper.selectBatchIds(any())).thenReturn(List.of(testGoods));
+        when(cartMapper.selectList(any())).thenReturn(List.of(testCart), List.of(testCart));
+
+        // When
+        var result = cartService.batchUpsert(request, 100L);
+
+        // Then
+        assertTrue(result.isSuccess());
+        ArgumentCaptor<List<Cart>> rows = ArgumentCaptor.forClass(List.class);
+        verify(cartMapper).upsertBatch(rows.capture(), eq(false));
+        assertEquals(1, rows.getValue().size());
+        assertEquals(3, rows.getValue().get(0).getQuantity());
+        assertEquals("url1", rows.getValue().get(0).getGoodsImage());
+    }
+
+    @Test
+    void testBatchUpsert_ReplaceRejectsDuplicateGoods() {
+        // Given: 覆盖模式，同一商品出现两次
+        CartBatchRequest request = new CartBatchRequest();
+        request.setItems(List.of(item(1L, 1), item(1L, 2)));
+        request.setReplace(true);
+
+        // When
+        var result = cartService.batchUpsert(request, 100L);
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals(ErrorCode.BAD_REQUEST.getCode(), result.getCode());
+        verify(goodsMapper, never()).selectBatchIds(any());
+        verify(cartMapper, never()).upsertBatch(any(), anyBoolean());
+    }
+
+    @Test
+    void testBatchUpsert_InsufficientStockWritesNothing() {
+        // Given: 覆盖模式，目标数量超过库存
+        CartBatchRequest request = new CartBatchRequest();
+        request.setItems(List.of(item(1L, 101)));
+        request.setReplace(true);
+        when(goodsMapper.selectBatchIds(any())).thenReturn(List.of(testGoods));
+
+        // When
+        var result = cartService.batchUpsert(request, 100L);
+
+        // Then
+        assertFalse(result.isSuccess());
+        verify(cartMapper, never()).upsertBatch(any(), anyBoolean());
+        verify(cartMapper, never()).selectList(any());
+    }
+
+    @Test
+    void testUpdateCartItem_WriteBehindSkipsDatabase() {
+        // Given: 写回模式，购物车行已在待写记录中，商品命中详情缓存
+        when(cartWriteBehindStore.pendingRow(100L, 1L)).thenReturn(testCart);
+        when(cartWriteBehindStore.isEnabled()).thenReturn(true);
+        when(goodsDetailCache.get(1L)).thenReturn(testGoods);
+        when(cartWriteBehindStore.stage(testCart, 5)).thenReturn(true);
+
+        // When
+        var result = cartService.updateCartItem(1L, updateCartRequest, 100L);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(5, result.getData().getQuantity());
+        verify(cartMapper, never()).selectById(any(Serializable.class));
+        verify(cartMapper, never()).updateById(any(Cart.class));
+        verify(goodsMapper, never()).selectById(any(Serializable.class));
+    }
+
+    private static AddToCartRequest item(Long goodsId, int quantity) {
+        AddToCartRequest item = new AddToCartRequest();
+        item.setGoodsId(goodsId);
+        item.setQuantity(quantity);
+        return item;
+    }
 }
@@ -0,0 +1,163 @@
+package com.laidekuai.cart.service;
+
+import com.laidekuai.cart.entity.Cart;
+import com.laidekuai.cart.mapper.CartMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartWriteBehindStoreTest {
+
+    @Mock
+    private CartMapper cartMapper;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void flush_CoalescesUpdatesIntoOneBatch() {
+        CartWriteBehindStore store = store(100);
+
+        assertThat(store.stage(cart(1L, 7L), 2)).isTrue();
+        assertThat(store.stage(cart(1L, 7L), 3)).isTrue();
+        assertThat(store.stage(cart(2L, 8L), 5)).isTrue();
+        assertThat(store.pendingQuantities(7L)).isEqualTo(Map.of(1L, 3));
+        assertThat(store.pendingRow(7L, 1L).getQuantity()).isEqualTo(3);
+        assertThat(store.pendingRow(8L, 1L)).isNull();
+
+        store.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Integer>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(cartMapper, times(1)).updateQuantityBatch(captor.capture());
+        assertThat(captor.getValue()).isEqualTo(Map.of(1L, 3, 2L, 5));
+        assertThat(store.pendingQuantities(7L)).isEmpty();
+        assertThat(Files.exists(journalDir.resolve("cart-write-behind.flushing"))).isFalse();
+    }
+
+    @Test
+    void flush_FailureKeepsPendingAndJournal() {
+        CartWriteBehindStore store = store(100);
+        when(cartMapper.updateQuantityBatch(anyMap())).thenThrow(new RuntimeException("db down"));
+        store.stage(cart(1L, 7L), 4);
+
+        store.flush();
+
+        assertThat(store.pendingQuantities(7L)).isEqualTo(Map.of(1L, 4));
+        assertThat(Files.exists(journalDir.resolve("cart-write-behind.log"))).isTrue();
+    }
+
+    @Test
+    void stage_OverLimitFallsBackToSyncWrite() {
+        CartWriteBehindStore store = store(1);
+
+        assertThat(store.stage(cart(1L, 7L), 2)).isTrue();
+        assertThat(store.stage(cart(2L, 8L), 2)).isFalse();
+        assertThat(store.stage(cart(3L, 7L), 2)).isTrue();
+    }
+
+    @Test
+    void recover_ReplaysLatestJournalEntry() throws Exception {
+        CartWriteBehindStore crashed = store(100);
+        crashed.stage(cart(1L, 7L), 2);
+        crashed.stage(cart(1L, 7L), 6);
+        Files.writeString(journalDir.resolve("cart-write-behind.log"), "123,7,1", java.nio.file.StandardOpenOption.APPEND);
+
+        CartWriteBehindStore restarted = store(100);
+        when(cartMapper.restoreQuantity(1L, 6, 0L)).thenReturn(1);
+        restarted.recover();
+
+        verify(cartMapper, times(1)).restoreQuantity(anyLong(), anyInt(), anyLong());
+        assertThat(Files.exists(journalDir.resolve("cart-write-behind.log"))).isFalse();
+    }
+
+    @Test
+    void recover_GuardsWithVersionSeenWhenStaged() {
+        CartWriteBehindStore crashed = store(100);
+        Cart row = cart(1L, 7L);
+        row.setVersion(3L);
+        crashed.stage(row, 2);
+        // 第二次修改基于待写记录，版本仍是暂存时读到的 3
+        crashed.stage(crashed.pendingRow(7L, 1L), 5);
+
+        store(100).recover();
+
+        verify(cartMapper).restoreQuantity(1L, 5, 3L);
+    }
+
+    @Test
+    void flush_TruncatesJournalAfterFlushUserDrainedEverything() {
+        CartWriteBehindStore store = store(100);
+        store.stage(cart(1L, 7L), 2);
+        store.flushUser(7L);
+        assertThat(Files.exists(journalDir.resolve("cart-write-behind.log"))).isTrue();
+
+        store.flush();
+
+        verify(cartMapper, times(1)).updateQuantityBatch(anyMap());
+        assertThat(Files.exists(journalDir.resolve("cart-write-behind.log"))).isFalse();
+        assertThat(Files.exists(journalDir.resolve("cart-write-behind.flushing"))).isFalse();
+    }
+
+    @Test
+    void flushUser_RollbackAfterTruncationRewritesJournal() throws Exception {
+        CartWriteBehindStore store = store(100);
+        store.stage(cart(1L, 7L), 2);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.flushUser(7L);
+            // 事务未结束时定时刷盘截断了日志
+            store.flush();
+            assertThat(Files.exists(journalDir.resolve("cart-write-behind.log"))).isFalse();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(store.pendingQuantities(7L)).isEqualTo(Map.of(1L, 2));
+        assertThat(Files.readString(journalDir.resolve("cart-write-behind.log"))).contains(",7,1,2,0");
+    }
+
+    @Test
+    void disabled_NeverStages() {
+        CartWriteBehindStore store = new CartWriteBehindStore(cartMapper, false, 100, 500, journalDir.toString());
+
+        assertThat(store.stage(cart(1L, 7L), 2)).isFalse();
+        store.flushUser(7L);
+        store.flush();
+
+        verifyNoInteractions(cartMapper);
+    }
+
+    private CartWriteBehindStore store(int maxDirtyUsers) {
+        return new CartWriteBehindStore(cartMapper, true, maxDirtyUsers, 500, journalDir.toString());
+    }
+
+    private static Cart cart(Long id, Long userId) {
+        Cart cart = new Cart();
+        cart.setId(id);
+        cart.setUserId(userId);
+        cart.setGoodsId(100L + id);
+        cart.setQuantity(1);
+        return cart;
+    }
+}
@@ -2,6 +2,7 @@ package com.laidekuai.category.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.laidekuai.category.dto.CategoryCreateRequest;
+import com.laidekuai.category.dto.CategoryTreeSnapshot;
 import com.laidekuai.category.dto.CategoryUpdateRequest;
 import com.laidekuai.category.entity.Category;
 import com.laidekuai.category.mapper.CategoryMapper;
@@ -21,6 +22,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -49,6 +51,7 @@ class CategoryServiceTest {
         testCategory.setName("电子产品");
         testCategory.setParentId(null);
         testCategory.setLevel(1);
+        testCategory.setPath("/1/");
         testCategory.setSortOrder(1);
         testCategory.setIconUrl("icon.png");
         testCategory.setStatus(CategoryStatus.ENABLED);
@@ -102,6 +105,73 @@ class CategoryServiceTest {
         assertEquals("手机", result.getData().get(0).getChildren().get(0).getName());
     }
 
+    @Test
+    void testGetCategoryTree_ServedFromSnapshotUntilChanged() {
+        // Given
+        when(categoryMapper.selectList(any(LambdaQueryWrapper.class)))
+                .thenReturn(List.of(testCategory))
+                .thenReturn(List.of());
+        when(categoryMapper.selectById(1L)).thenReturn(testCategory);
+        when(categoryMapper.selectCount(any(LambdaQueryWrapper.class))).thenReturn(0L);
+        when(categoryMapper.countGoodsByCategory(1L)).thenReturn(0L);
+
+        // When
+        CategoryTreeSnapshot first = categoryService.getCategoryTreeSnapshot();
+        CategoryTreeSnapshot second = categoryService.getCategoryTreeSnapshot();
+        categoryService.deleteCategory(1L);
+        CategoryTreeSnapshot afterDelete = categoryService.getCategoryTreeSnapshot();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, first.getTree().size());
+        assertTrue(afterDelete.getTree().isEmpty());
+        assertNotEquals(first.getEtag(), afterDelete.getEtag());
+        assertThrows(UnsupportedOperationException.class, () -> first.getTree().add(new Category()));
+        verify(categoryMapper, times(2)).selectList(any(LambdaQueryWrapper.class));
+    }
+
+    @Test
+    void testRefreshTreeIfChanged_RebuildsOnlyWhenVersionChanges() {
+        // Given：其他实例新增分类后版本变化
+        when(categoryMapper.selectTreeVersion())
+                .thenReturn(1L)
+                .thenReturn(1L)
+                .thenReturn(2L)
+                .thenReturn(2L);
+        Category other = new Category();
+        other.setId(2L);
+        other.setName("图书");
+        other.setLevel(1);
+        other.setPath("/2/");
+        other.setSortOrder(2);
+        other.setStatus(CategoryStatus.ENABLED);
+        when(categoryMapper.selectList(any(LambdaQueryWrapper.class)))
+                .thenReturn(List.of(testCategory))
+                .thenReturn(List.of(testCategory, other));
+
+        // When
+        CategoryTreeSnapshot first = categoryService.getCategoryTreeSnapshot();
+        categoryService.refreshTreeIfChanged();
+        CategoryTreeSnapshot unchanged = categoryService.getCategoryTreeSnapshot();
+        categoryService.refreshTreeIfChanged();
+        CategoryTreeSnapshot rebuilt = categoryService.getCategoryTreeSnapshot();
+
+        // Then
+        assertSame(first, unchanged);
+        assertEquals(2, rebuilt.getTree().size());
+        assertNotEquals(first.getEtag(), rebuilt.getEtag());
+        verify(categoryMapper, times(2)).selectList(any(LambdaQueryWrapper.class));
+    }
+
+    @Test
+    void testRefreshTreeIfChanged_SkipsBeforeFirstLoad() {
+        // When
+        categoryService.refreshTreeIfChanged();
+
+        // Then
+        verifyNoInteractions(categoryMapper);
+    }
+
     @Test
     void testGetCategoryById_Success() {
         // Given
@@ -133,6 +203,7 @@ class CategoryServiceTest {
         Category parentCategory = new Category();
         parentCategory.setId(1L);
         parentCategory.setLevel(1);
+        parentCategory.setPath("/1/");
 
         createRequest.setParentId(1L);
 
@@ -151,7 +222,9 @@ class CategoryServiceTest {
         assertTrue(result.isSuccess());
         assertEquals(2L, result.getData().getId());
         assertEquals(2, result.getData().getLevel());
+        assertEquals("/1/2/", result.getData().getPath());
         verify(categoryMapper, times(1)).insert(any(Category.class));
+        verify(categoryMapper, times(1)).incrementTreeVersion();
     }
 
     @Test
@@ -200,6 +273,7 @@ class CategoryServiceTest {
         // Then
         assertTrue(result.isSuccess());
         verify(categoryMapper, times(1)).updateById(any(Category.class));
+        verify(categoryMapper, times(1)).incrementTreeVersion();
     }
 
     @Test
@@ -208,6 +282,8 @@ class CategoryServiceTest {
         Category childCategory = new Category();
         childCategory.setId(2L);
         childCategory.setParentId(1L);
+        childCategory.setLevel(2);
+        childCategory.setPath("/1/2/");
 
         updateRequest.setParentId(2L);
 
@@ -222,6 +298,83 @@ class CategoryServiceTest {
         verify(categoryMapper, never()).updateById(any(Category.class));
     }
 
+    @Test
+    void testUpdateCategory_MovesSubtreePaths() {
+        // Given - 把一级分类5（下挂一层子分类）移动到分类1下
+        Category moving = new Category();
+        moving.setId(5L);
+        moving.setLevel(1);
+        moving.setPath("/5/");
+
+        updateRequest.setParentId(1L);
+        updateRequest.setName(null);
+
+        when(categoryMapper.selectById(5L)).thenReturn(moving);
+        when(categoryMapper.selectById(1L)).thenReturn(testCategory);
+        when(categoryMapper.selectMaxLevelByPathPrefix("/5/")).thenReturn(2);
+
+        // When
+        var result = categoryService.updateCategory(5L, updateRequest);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals("/1/5/", result.getData().getPath());
+        assertEquals(2, result.getData().getLevel());
+        verify(categoryMapper).moveDescendants("/5/", "/1/5/", 1);
+    }
+
+    @Test
+    void testUpdateCategory_SubtreeTooDeep() {
+        // Given - 分类5下还有两层，移动到一级分类下会变成4级
+        Category moving = new Category();
+        moving.setId(5L);
+        moving.setLevel(1);
+        moving.setPath("/5/");
+
+        updateRequest.setParentId(1L);
+
+        when(categoryMapper.selectById(5L)).thenReturn(moving);
+        when(categoryMapper.selectById(1L)).thenReturn(testCategory);
+        when(categoryMapper.selectMaxLevelByPathPrefix("/5/")).thenReturn(3);
+
+        // When
+        var result = categoryService.updateCategory(5L, updateRequest);
+
+        // Then
+        assertFalse(result.isSuccess());
+        verify(categoryMapper, never()).moveDescendants(any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetCategoryPath_ReturnsAncestors() {
+        // Given
+        Category child = new Category();
+        child.setId(2L);
+        child.setLevel(2);
+        child.setPath("/1/2/");
+        when(categoryMapper.selectById(2L)).thenReturn(child);
+        when(categoryMapper.selectBatchIds(List.of(1L))).thenReturn(List.of(testCategory));
+
+        // When
+        var result = categoryService.getCategoryPath(2L);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getData().size());
+        assertEquals(1L, result.getData().get(0).getId());
+        assertEquals(2L, result.getData().get(1).getId());
+    }
+
+    @Test
+    void testGetCategoryPath_NotFound() {
+        when(categoryMapper.selectById(9L)).thenReturn(null);
+
+        var result = categoryService.getCategoryPath(9L);
+
+        assertFalse(result.isSuccess());
+        verify(categoryMapper, never()).selectBatchIds(any());
+    }
+
     @Test
     void testDeleteCategory_Success() {
         // Given
@@ -236,6 +389,7 @@ class CategoryServiceTest {
         // Then
         assertTrue(result.isSuccess());
         verify(categoryMapper, times(1)).deleteById((Serializable) 1L);
+        verify(categoryMapper, times(1)).incrementTreeVersion();
     }
 
     @Test
@@ -250,6 +404,7 @@ class CategoryServiceTest {
         // Then
         assertFalse(result.isSuccess());
         verify(categoryMapper, never()).deleteById(any(Serializable.class));
+        verify(categoryMapper, never()).incrementTreeVersion();
     }
 
     @Test
@@ -281,14 +436,15 @@ class CategoryServiceTest {
         Category category3 = new Category();
         category3.setId(3L);
         category3.setParentId(2L);
+        category3.setPath("/1/2/3/");
 
         when(categoryMapper.selectById(3L)).thenReturn(category3);
-        when(categoryMapper.selectById(2L)).thenReturn(category2);
         // When
         boolean result = categoryService.hasCircularReference(1L, 3L);
 
-        // Then
+        // Then：只需读取新父分类的物化路径
         assertTrue(result);
+        verify(categoryMapper, times(1)).selectById(any());
     }
 
     @Test
@@ -297,6 +453,7 @@ class CategoryServiceTest {
         Category category1 = new Category();
         category1.setId(1L);
         category1.setParentId(null);
+        category1.setPath("/1/");
 
         when(categoryMapper.selectById(10L)).thenReturn(category1);
 
@@ -0,0 +1,51 @@
+package com.laidekuai.common.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Actuator 只在管理端口开放：业务端口访问不到指标
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void prometheus_NotReachableOnPublicPort() throws Exception {
+        assertThat(managementPort).isNotEqualTo(serverPort);
+        assertThat(get(serverPort, "/api/actuator/prometheus").statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    void prometheusAndHealth_OpenOnManagementPort() throws Exception {
+        HttpResponse<String> prometheus = get(managementPort, "/actuator/prometheus");
+        assertThat(prometheus.statusCode()).isEqualTo(200);
+        assertThat(prometheus.body()).contains("jvm_memory_used_bytes");
+        assertThat(get(managementPort, "/actuator/health").statusCode()).isEqualTo(200);
+    }
+
+    private HttpResponse<String> get(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,98 @@
+package com.laidekuai.common.config;
+
+import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtUtil, tokenRevocationStore, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ReusesVerifiedToken() throws Exception {
+        when(jwtUtil.parseClaims("t1")).thenReturn(claims(new Date(System.currentTimeMillis() + 60_000)));
+
+        filter.doFilter(request("t1"), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request("t1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(7L);
+        verify(jwtUtil, times(1)).parseClaims("t1");
+    }
+
+    @Test
+    void doFilter_ExpiredTokenRejected() throws Exception {
+        when(jwtUtil.parseClaims("t2")).thenReturn(claims(new Date(System.currentTimeMillis() - 1_000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("t2"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void doFilter_RevokedTokenRejectedEvenWhenCached() throws Exception {
+        when(jwtUtil.parseClaims("t3")).thenReturn(claims(new Date(System.currentTimeMillis() + 60_000)));
+        when(tokenRevocationStore.isRevoked(eq(7L), anyLong())).thenReturn(false, true);
+
+        filter.doFilter(request("t3"), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("t3"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(jwtUtil, times(1)).parseClaims("t3");
+    }
+
+    private static Claims claims(Date expiration) {
+        return Jwts.claims()
+                .add("userId", 7L)
+                .add("role", "USER")
+                .issuedAt(new Date(System.currentTimeMillis() - 60_000))
+                .expiration(expiration)
+                .build();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,41 @@
+package com.laidekuai.common.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class MapperMetricsInterceptorTest {
+
+    @Test
+    void intercept_RecordsDurationAndRowsPerStatement() throws Throwable {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MapperMetricsInterceptor interceptor = new MapperMetricsInterceptor(registry);
+        Configuration configuration = new Configuration();
+        MappedStatement ms = new MappedStatement.Builder(configuration, "com.laidekuai.goods.mapper.GoodsMapper.deductStock",
+                new StaticSqlSource(configuration, "UPDATE goods SET stock = stock - 1"), SqlCommandType.UPDATE).build();
+        Executor executor = mock(Executor.class);
+        when(executor.update(ms, null)).thenReturn(1);
+
+        Object result = interceptor.intercept(new Invocation(executor,
+                Executor.class.getMethod("update", MappedStatement.class, Object.class), new Object[]{ms, null}));
+
+        assertThat(result).isEqualTo(1);
+        Timer timer = registry.get("mybatis.statement")
+                .tag("statement", "com.laidekuai.goods.mapper.GoodsMapper.deductStock")
+                .tag("type", "UPDATE")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        DistributionSummary rows = registry.get("mybatis.statement.rows").summary();
+        assertThat(rows.totalAmount()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,42 @@
+package com.laidekuai.common.config;
+
+import com.laidekuai.cart.service.CartWriteBehindStore;
+import com.laidekuai.common.scheduler.OrderExpiryQueue;
+import com.laidekuai.goods.service.GoodsDetailCache;
+import com.laidekuai.user.service.PasswordHasher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class MetricsConfigTest {
+
+    @Test
+    void componentMetrics_CumulativeValuesAreCounters() {
+        PasswordHasher passwordHasher = mock(PasswordHasher.class);
+        OrderExpiryQueue orderExpiryQueue = mock(OrderExpiryQueue.class);
+        GoodsDetailCache goodsDetailCache = mock(GoodsDetailCache.class);
+        CartWriteBehindStore cartWriteBehindStore = mock(CartWriteBehindStore.class);
+        when(goodsDetailCache.hitCount()).thenReturn(7L);
+        when(goodsDetailCache.size()).thenReturn(3);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new MetricsConfig().componentMetrics(passwordHasher, orderExpiryQueue, goodsDetailCache, cartWriteBehindStore)
+                .bindTo(registry);
+
+        assertThat(registry.get("goods.detail.cache.hits").functionCounter().count()).isEqualTo(7.0);
+        assertThat(registry.get("goods.detail.cache.size").gauge().value()).isEqualTo(3.0);
+        for (String name : new String[]{"auth.password.hash.rejected", "order.expiry.canceled",
+                "goods.detail.cache.misses", "cart.write.behind.flushed.rows"}) {
+            assertThat(registry.get(name).meter()).isInstanceOf(FunctionCounter.class);
+        }
+        for (String name : new String[]{"auth.password.hash.active", "auth.password.hash.queued",
+                "order.expiry.pending", "cart.write.behind.dirty.users"}) {
+            assertThat(registry.get(name).meter()).isInstanceOf(Gauge.class);
+        }
+        verify(goodsDetailCache, never()).snapshot();
+    }
+}
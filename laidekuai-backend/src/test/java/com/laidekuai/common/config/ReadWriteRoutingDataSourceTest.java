@@ -0,0 +1,168 @@
+package com.laidekuai.common.config;
+
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import jakarta.servlet.http.Cookie;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 两个 H2 内存库分别模拟主库、从库
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private ReplicaRouting replicaRouting;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private SourceMapper sourceMapper;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        replicaRouting = new ReplicaRouting(60_000);
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                database("rw_primary"), database("rw_replica"), replicaRouting));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+        factoryBean.setDataSource(routing);
+        factoryBean.setPlugins(new ReplicaStickinessInterceptor(replicaRouting));
+        SqlSessionFactory sqlSessionFactory = factoryBean.getObject();
+        sqlSessionFactory.getConfiguration().addMapper(SourceMapper.class);
+        sourceMapper = new SqlSessionTemplate(sqlSessionFactory).getMapper(SourceMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransaction_RoutesToReplica() {
+        assertThat(inReadOnly()).isEqualTo("rw_replica");
+        assertThat(inReadWrite()).isEqualTo("rw_primary");
+        assertThat(source()).isEqualTo("rw_primary");
+    }
+
+    @Test
+    void mapperWrite_LaterRequestWithCookieReadsOwnWrite() {
+        MockHttpServletResponse writeResponse = bind(new MockHttpServletRequest());
+        readWrite.executeWithoutResult(status -> sourceMapper.insertNote("mine"));
+
+        Cookie cookie = writeResponse.getCookie(ReplicaRouting.STICKY_COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(writeResponse.getHeader(ReplicaRouting.STICKY_HEADER)).isEqualTo(cookie.getValue());
+        assertThat(countNotesInReadOnly()).isEqualTo(1);
+
+        // 后续请求可能落到任何实例：只依赖客户端带回的 Cookie
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(cookie);
+        bind(next);
+        assertThat(countNotesInReadOnly()).isEqualTo(1);
+        assertThat(inReadOnly()).isEqualTo("rw_primary");
+
+        bind(new MockHttpServletRequest());
+        assertThat(countNotesInReadOnly()).isZero();
+        assertThat(replicaRouting.snapshot().get("stickyMarks")).isEqualTo(1L);
+    }
+
+    @Test
+    void stickyHeader_RoutesToPrimaryUntilExpiry() {
+        MockHttpServletRequest withHeader = new MockHttpServletRequest();
+        withHeader.addHeader(ReplicaRouting.STICKY_HEADER, String.valueOf(System.currentTimeMillis() + 30_000));
+        bind(withHeader);
+        assertThat(inReadOnly()).isEqualTo("rw_primary");
+
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.addHeader(ReplicaRouting.STICKY_HEADER, String.valueOf(System.currentTimeMillis() - 1));
+        bind(expired);
+        assertThat(inReadOnly()).isEqualTo("rw_replica");
+    }
+
+    @Test
+    void stickyCookie_BeyondStickyWindowIsIgnored() {
+        MockHttpServletRequest forged = new MockHttpServletRequest();
+        forged.setCookies(new Cookie(ReplicaRouting.STICKY_COOKIE,
+                String.valueOf(System.currentTimeMillis() + 3_600_000)));
+        bind(forged);
+
+        assertThat(inReadOnly()).isEqualTo("rw_replica");
+    }
+
+    @Test
+    void markWrite_OutsideRequestIsNoop() {
+        readWrite.executeWithoutResult(status -> sourceMapper.insertNote("job"));
+
+        assertThat(inReadOnly()).isEqualTo("rw_replica");
+        assertThat(replicaRouting.snapshot().get("stickyMarks")).isEqualTo(0L);
+    }
+
+    private String inReadOnly() {
+        return readOnly.execute(status -> source());
+    }
+
+    private int countNotesInReadOnly() {
+        Integer count = readOnly.execute(status -> sourceMapper.countNotes());
+        return count == null ? 0 : count;
+    }
+
+    private String inReadWrite() {
+        return readWrite.execute(status -> source());
+    }
+
+    private String source() {
+        return jdbcTemplate.queryForObject("SELECT name FROM source", String.class);
+    }
+
+    private static MockHttpServletResponse bind(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS source (name VARCHAR(32))");
+        template.execute("CREATE TABLE IF NOT EXISTS note (content VARCHAR(32))");
+        template.execute("DELETE FROM source");
+        template.execute("DELETE FROM note");
+        template.update("INSERT INTO source (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    interface SourceMapper {
+
+        @Insert("INSERT INTO note (content) VALUES (#{content})")
+        int insertNote(String content);
+
+        @Select("SELECT COUNT(*) FROM note")
+        int countNotes();
+    }
+}
@@ -0,0 +1,94 @@
+package com.laidekuai.common.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlProfilingFilterTest {
+
+    private final SqlProfilingFilter filter = new SqlProfilingFilter();
+
+    @Test
+    void doFilter_CountsStatementsPerEndpoint() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), chain(30));
+        filter.doFilter(request(), new MockHttpServletResponse(), chain(2));
+
+        List<Map<String, Object>> endpoints = endpoints();
+        assertThat(endpoints).hasSize(1);
+        Map<String, Object> endpoint = endpoints.get(0);
+        assertThat(endpoint.get("endpoint")).isEqualTo("GET /goods/{id}");
+        assertThat(endpoint.get("requests")).isEqualTo(2L);
+        assertThat(endpoint.get("maxStatements")).isEqualTo(30);
+        assertThat(endpoint.get("exceeded")).isEqualTo(1L);
+        assertThat(endpoint.get("worstStatements")).isEqualTo(List.of("GoodsMapper.selectByIdx30"));
+    }
+
+    @Test
+    void record_OutsideRequestOnlyTracksStatement() {
+        filter.record("OrderMapper.selectPendingIdsForUpdate", TimeUnit.MILLISECONDS.toNanos(800));
+
+        assertThat(endpoints()).isEmpty();
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> statements = (List<Map<String, Object>>) filter.snapshot(10).get("statements");
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0).get("slow")).isEqualTo(1L);
+        assertThat(statements.get(0).get("maxMs")).isEqualTo(800L);
+    }
+
+    @Test
+    void record_ConcurrentStatementsAllCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int t = 0; t < 4; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        filter.record("CartMapper.selectList", i);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> statements = (List<Map<String, Object>>) filter.snapshot(10).get("statements");
+        assertThat(statements.get(0).get("count")).isEqualTo(4_000L);
+        assertThat(statements.get(0).get("slow")).isEqualTo(0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> endpoints() {
+        return (List<Map<String, Object>>) filter.snapshot(10).get("endpoints");
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/goods/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/goods/{id}");
+        return request;
+    }
+
+    private MockFilterChain chain(int statements) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                for (int i = 0; i < statements; i++) {
+                    filter.record("GoodsMapper.selectById", 1_000);
+                }
+            }
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package com.laidekuai.common.scheduler;
 
+import com.laidekuai.common.config.ConnectionPoolMetrics;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -8,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.Mockito.when;
@@ -25,9 +28,18 @@ class AdminSchedulerMetricsControllerTest {
     @MockBean
     private SchedulerMetrics schedulerMetrics;
 
+    @MockBean
+    private OrderExpiryQueue orderExpiryQueue;
+
+    @MockBean
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
     @Test
     void schedulerMetrics_ReturnsSnapshot() throws Exception {
         when(schedulerMetrics.snapshot()).thenReturn(Map.of(
@@ -43,4 +55,18 @@ class AdminSchedulerMetricsControllerTest {
                 .andExpect(jsonPath("$.data.totalRuns").value(5))
                 .andExpect(jsonPath("$.data.totalCanceled").value(7));
     }
+
+    @Test
+    void connectionPoolMetrics_ReturnsPools() throws Exception {
+        when(connectionPoolMetrics.snapshot()).thenReturn(List.of(Map.of(
+                "pool", "laidekuai-primary",
+                "pending", 3,
+                "acquireMaxMs", 120.0
+        )));
+
+        mockMvc.perform(get("/admin/system/metrics/connection-pool"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].pool").value("laidekuai-primary"))
+                .andExpect(jsonPath("$.data[0].pending").value(3));
+    }
 }
@@ -0,0 +1,99 @@
+package com.laidekuai.common.scheduler;
+
+import com.laidekuai.order.entity.Order;
+import com.laidekuai.order.mapper.OrderMapper;
+import com.laidekuai.order.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExpiryQueueTest {
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private ObjectProvider<OrderService> orderServiceProvider;
+
+    @Test
+    void takeExpired_ReturnsOrdersPastDeadlineInDeadlineOrder() throws Exception {
+        OrderExpiryQueue queue = new OrderExpiryQueue(orderMapper, orderServiceProvider, true, 15, 10, 60);
+        LocalDateTime now = LocalDateTime.now();
+
+        queue.schedule(2L, now.minusMinutes(16));
+        queue.schedule(1L, now.minusMinutes(20));
+        queue.schedule(3L, now);
+
+        assertThat(queue.takeExpired()).containsExactly(1L, 2L);
+        assertThat(queue.snapshot().get("pending")).isEqualTo(1);
+    }
+
+    @Test
+    void cancelExpired_DelegatesToBatchCancel() {
+        when(orderServiceProvider.getObject()).thenReturn(orderService);
+        when(orderService.cancelOrdersSystemBatch(List.of(1L, 2L))).thenReturn(2);
+        OrderExpiryQueue queue = new OrderExpiryQueue(orderMapper, orderServiceProvider, true, 15, 10, 60);
+
+        queue.cancelExpired(List.of(1L, 2L));
+
+        assertThat(queue.snapshot().get("fired")).isEqualTo(2L);
+        assertThat(queue.snapshot().get("canceled")).isEqualTo(2L);
+        verify(orderMapper, never()).selectList(any());
+    }
+
+    @Test
+    void cancelExpired_ReschedulesSkippedPendingOrders() throws Exception {
+        when(orderServiceProvider.getObject()).thenReturn(orderService);
+        when(orderService.cancelOrdersSystemBatch(List.of(1L, 2L))).thenReturn(1);
+        when(orderMapper.selectList(any())).thenReturn(List.of(order(2L)));
+        OrderExpiryQueue queue = new OrderExpiryQueue(orderMapper, orderServiceProvider, true, 15, 10, 1);
+
+        queue.cancelExpired(List.of(1L, 2L));
+
+        assertThat(queue.snapshot().get("canceled")).isEqualTo(1L);
+        assertThat(queue.snapshot().get("rescheduled")).isEqualTo(1L);
+        assertThat(queue.snapshot().get("pending")).isEqualTo(1);
+        assertThat(queue.takeExpired()).containsExactly(2L);
+    }
+
+    @Test
+    void rebuild_LoadsPendingOrders() {
+        when(orderMapper.selectList(any())).thenReturn(List.of(order(1L), order(2L)));
+        OrderExpiryQueue queue = new OrderExpiryQueue(orderMapper, orderServiceProvider, true, 15, 10, 60);
+
+        int loaded = queue.rebuild();
+
+        assertThat(loaded).isEqualTo(2);
+        assertThat(queue.snapshot().get("pending")).isEqualTo(2);
+        verify(orderMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    void schedule_DisabledIsNoop() {
+        OrderExpiryQueue queue = new OrderExpiryQueue(orderMapper, orderServiceProvider, false, 15, 10, 60);
+
+        queue.schedule(1L, LocalDateTime.now().minusHours(1));
+
+        assertThat(queue.snapshot().get("pending")).isEqualTo(0);
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+}
@@ -81,6 +81,48 @@ class OrderSchedulerTest {
         verify(schedulerMetrics).recordRun(eq(1), eq(0), anyLong());
     }
 
+    @Test
+    void cancelTimeoutOrders_BatchModeLoopsUntilDrained() throws Exception {
+        when(orderMapper.selectList(any()))
+                .thenReturn(List.of(order(1L), order(2L)))
+                .thenReturn(List.of(order(3L)));
+        when(orderService.cancelOrdersSystemBatch(List.of(1L, 2L))).thenReturn(2);
+        when(orderService.cancelOrdersSystemBatch(List.of(3L))).thenReturn(1);
+
+        OrderScheduler scheduler = new OrderScheduler(orderMapper, orderService, schedulerMetrics);
+        setField(scheduler, "timeoutMinutes", 15);
+        setField(scheduler, "batchEnabled", true);
+        setField(scheduler, "batchSize", 2);
+
+        scheduler.cancelTimeoutOrders();
+
+        verify(orderMapper, times(2)).selectList(any());
+        verify(orderService, never()).cancelOrderSystem(anyLong());
+        verify(schedulerMetrics).recordRun(eq(3), eq(3), anyLong());
+    }
+
+    @Test
+    void cancelTimeoutOrders_BatchModeStopsWhenNothingCanceled() throws Exception {
+        when(orderMapper.selectList(any())).thenReturn(List.of(order(1L), order(2L)));
+        when(orderService.cancelOrdersSystemBatch(List.of(1L, 2L))).thenReturn(0);
+
+        OrderScheduler scheduler = new OrderScheduler(orderMapper, orderService, schedulerMetrics);
+        setField(scheduler, "timeoutMinutes", 15);
+        setField(scheduler, "batchEnabled", true);
+        setField(scheduler, "batchSize", 2);
+
+        scheduler.cancelTimeoutOrders();
+
+        verify(orderMapper, times(1)).selectList(any());
+        verify(schedulerMetrics).recordRun(eq(2), eq(0), anyLong());
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        return order;
+    }
+
     private static void setField(Object target, String fieldName, Object value) throws Exception {
         Field field = target.getClass().getDeclaredField(fieldName);
         field.setAccessible(true);
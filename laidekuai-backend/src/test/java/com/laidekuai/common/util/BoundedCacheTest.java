@@ -0,0 +1,106 @@
+package com.laidekuai.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    @Test
+    void put_EvictsLeastRecentlyAccessedBeyondMaxSize() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.evictions()).isEqualTo(1L);
+    }
+
+    @Test
+    void get_ExpiredEntryRemoved() {
+        AtomicLong now = new AtomicLong(0);
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 1_000, now::get);
+        cache.put("a", 1);
+        cache.put("b", 2, 5_000);
+
+        now.set(1_000);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.expirations()).isEqualTo(1L);
+    }
+
+    @Test
+    void put_PeriodicallySweepsExpiredEntries() {
+        AtomicLong now = new AtomicLong(0);
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 1_000, now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        now.set(60_000);
+        cache.put("c", 3);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.expirations()).isEqualTo(2L);
+    }
+
+    @Test
+    void compute_ExpiredValueTreatedAsAbsent() {
+        AtomicLong now = new AtomicLong(0);
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 1_000, now::get);
+        cache.put("a", 1);
+        now.set(1_000);
+
+        Integer value = cache.compute("a", (key, current) -> current == null ? 10 : current + 1);
+
+        assertThat(value).isEqualTo(10);
+        assertThat(cache.compute("a", (key, current) -> null)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void compute_ReturningCurrentValueKeepsExpiry() {
+        AtomicLong now = new AtomicLong(0);
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 1_000, now::get);
+        cache.put("a", 1);
+
+        now.set(900);
+        cache.compute("a", (key, current) -> current);
+        now.set(1_000);
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void put_NonPositiveMaxSizeDisablesCaching() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(0);
+        cache.put("a", 1);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.compute("b", (key, current) -> 2)).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void forEach_SkipsExpiredEntries() {
+        AtomicLong now = new AtomicLong(0);
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 1_000, now::get);
+        cache.put("a", 1);
+        cache.put("b", 2, 5_000);
+        now.set(2_000);
+
+        Map<String, Integer> entries = new HashMap<>();
+        cache.forEach(entries::put);
+
+        assertThat(entries).containsOnly(Map.entry("b", 2));
+    }
+}
@@ -0,0 +1,56 @@
+package com.laidekuai.common.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpCacheUtilsTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 31, 12, 0);
+
+    @Test
+    void etag_ChangesWithVersionOrExtra() {
+        String etag = HttpCacheUtils.etag(List.of(1L, 2L), id -> id + ":" + UPDATED_AT, 2L);
+
+        assertThat(etag).startsWith("W/\"").endsWith("\"");
+        assertThat(HttpCacheUtils.etag(List.of(1L, 2L), id -> id + ":" + UPDATED_AT, 2L)).isEqualTo(etag);
+        assertThat(HttpCacheUtils.etag(List.of(1L, 2L), id -> id + ":" + UPDATED_AT.plusSeconds(1), 2L))
+                .isNotEqualTo(etag);
+        assertThat(HttpCacheUtils.etag(List.of(1L, 2L), id -> id + ":" + UPDATED_AT, 3L)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void checkNotModified_MatchingEtagReturns304() {
+        String etag = HttpCacheUtils.etag(List.of(1L), id -> id + ":" + UPDATED_AT);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/goods");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean notModified = HttpCacheUtils.checkNotModified(new ServletWebRequest(request, response), etag);
+
+        assertThat(notModified).isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("ETag")).isEqualTo(etag);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache, public");
+    }
+
+    @Test
+    void checkNotModified_StaleEtagReturnsBody() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/goods");
+        request.addHeader("If-None-Match", "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String etag = HttpCacheUtils.etag(List.of(1L), id -> id + ":" + UPDATED_AT);
+
+        boolean notModified = HttpCacheUtils.checkNotModified(new ServletWebRequest(request, response), etag);
+
+        assertThat(notModified).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("ETag")).isEqualTo(etag);
+    }
+}
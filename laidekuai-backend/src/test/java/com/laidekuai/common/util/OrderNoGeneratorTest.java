@@ -0,0 +1,101 @@
+package com.laidekuai.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderNoGeneratorTest {
+
+    private static final long NOW = 1767225600000L;
+
+    @Test
+    void generate_UniqueAcrossThreads() throws Exception {
+        OrderNoGenerator generator = new OrderNoGenerator(3, 5000);
+        int threads = 32;
+        int perThread = 5000;
+        Set<String> orderNos = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < perThread; j++) {
+                        orderNos.add(generator.generate());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(orderNos).hasSize(threads * perThread);
+    }
+
+    @Test
+    void generate_EncodesWorkerId() {
+        OrderNoGenerator generator = new OrderNoGenerator(7, 5000, () -> NOW);
+
+        long orderNo = Long.parseLong(generator.generate());
+
+        assertThat((orderNo >> 12) & 0x1F).isEqualTo(7);
+    }
+
+    @Test
+    void generate_BorrowsNextMillisWhenSequenceExhausted() {
+        OrderNoGenerator generator = new OrderNoGenerator(1, 5000, () -> NOW);
+
+        long previous = -1;
+        for (int i = 0; i < 4096 * 2; i++) {
+            long current = Long.parseLong(generator.generate());
+            assertThat(current).isGreaterThan(previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    void generate_ToleratesSmallClockRegression() {
+        AtomicLong clock = new AtomicLong(NOW);
+        OrderNoGenerator generator = new OrderNoGenerator(1, 5000, clock::get);
+
+        long before = Long.parseLong(generator.generate());
+        clock.set(NOW - 100);
+        long after = Long.parseLong(generator.generate());
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void generate_FailsOnLargeClockRegression() {
+        AtomicLong clock = new AtomicLong(NOW);
+        OrderNoGenerator generator = new OrderNoGenerator(1, 5000, clock::get);
+
+        generator.generate();
+        clock.set(NOW - 60_000);
+
+        assertThatThrownBy(generator::generate).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void constructor_RejectsOutOfRangeWorkerId() {
+        assertThatThrownBy(() -> new OrderNoGenerator(32, 5000)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -3,6 +3,7 @@ package com.laidekuai.dispute.controller;
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
 import com.laidekuai.dispute.dto.DisputeDTO;
 import com.laidekuai.dispute.dto.DisputeResolveRequest;
 import com.laidekuai.dispute.service.DisputeService;
@@ -36,6 +37,9 @@ class AdminDisputeControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
     @Test
     void listAdminDisputes_ReturnsPage() throws Exception {
         DisputeDTO dto = new DisputeDTO();
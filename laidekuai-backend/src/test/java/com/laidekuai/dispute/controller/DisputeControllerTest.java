@@ -2,6 +2,7 @@ package com.laidekuai.dispute.controller;
 
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
 import com.laidekuai.dispute.dto.DisputeDetailDTO;
 import com.laidekuai.dispute.service.DisputeService;
 import org.junit.jupiter.api.Test;
@@ -30,6 +31,9 @@ class DisputeControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
     @Test
     void getDisputeDetail_ReturnsOk() throws Exception {
         DisputeDetailDTO dto = new DisputeDetailDTO();
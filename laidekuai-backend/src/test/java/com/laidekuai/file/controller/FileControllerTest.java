@@ -2,6 +2,7 @@ package com.laidekuai.file.controller;
 
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
 import com.laidekuai.file.service.FileStorageService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +32,9 @@ class FileControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
     @Test
     void uploadSuccess() throws Exception {
         when(fileStorageService.upload(any())).thenReturn(Result.success("/static/files/20260221/abc.jpg"));
@@ -0,0 +1,82 @@
+package com.laidekuai.goods.controller;
+
+import com.laidekuai.common.dto.PageResult;
+import com.laidekuai.common.dto.Result;
+import com.laidekuai.common.enums.GoodsStatus;
+import com.laidekuai.goods.dto.GoodsSummary;
+import com.laidekuai.goods.service.GoodsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * 公开目录接口经 Tomcat 压缩后仍带 ETag（弱 ETag 才会被压缩）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class GoodsControllerCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private GoodsService goodsService;
+
+    @Test
+    void listGoods_LargeBodyIsGzippedWithEtag() throws Exception {
+        when(goodsService.listGoods(any())).thenReturn(Result.success(largePage()));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/goods"))
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(etag -> assertThat(etag).startsWith("W/\""));
+        String body = new String(new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertThat(body.length()).isGreaterThan(2048);
+        assertThat(body).contains("\"title\":\"商品 49\"");
+    }
+
+    private static PageResult<GoodsSummary> largePage() {
+        List<GoodsSummary> records = new ArrayList<>();
+        for (long i = 0; i < 50; i++) {
+            GoodsSummary goods = new GoodsSummary();
+            goods.setId(i + 1);
+            goods.setSellerId(100L);
+            goods.setCategoryId(10L);
+            goods.setTitle("商品 " + i);
+            goods.setSubTitle("九成新，附原装配件");
+            goods.setPrice(new BigDecimal("99.00"));
+            goods.setStock(5);
+            goods.setCoverUrl("/static/files/20260101/cover-" + i + ".jpg");
+            goods.setStatus(GoodsStatus.APPROVED);
+            goods.setCreatedAt(LocalDateTime.of(2026, 1, 1, 10, 0));
+            goods.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 10, 0));
+            records.add(goods);
+        }
+        return PageResult.of(records, 50L, 1L, 50L);
+    }
+}
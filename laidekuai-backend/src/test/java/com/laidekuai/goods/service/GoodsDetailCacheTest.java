@@ -0,0 +1,132 @@
+package com.laidekuai.goods.service;
+
+import com.laidekuai.common.enums.GoodsStatus;
+import com.laidekuai.goods.entity.Goods;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoodsDetailCacheTest {
+
+    @Test
+    void put_OnlyCachesApprovedGoods() {
+        GoodsDetailCache cache = new GoodsDetailCache(true, 10, 30);
+
+        cache.put(goods(1L, GoodsStatus.DRAFT), cache.currentGeneration(1L));
+        cache.put(goods(2L, GoodsStatus.APPROVED), cache.currentGeneration(2L));
+
+        assertNull(cache.get(1L));
+        assertEquals(2L, cache.get(2L).getId());
+        assertEquals(1L, cache.snapshot().get("hits"));
+        assertEquals(1L, cache.snapshot().get("misses"));
+    }
+
+    @Test
+    void get_ReturnsCopy() {
+        GoodsDetailCache cache = new GoodsDetailCache(true, 10, 30);
+        cache.put(goods(1L, GoodsStatus.APPROVED), cache.currentGeneration(1L));
+
+        cache.get(1L).setStock(0);
+
+        assertEquals(5, cache.get(1L).getStock());
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedBeyondMaxSize() {
+        GoodsDetailCache cache = new GoodsDetailCache(true, 2, 30);
+        cache.put(goods(1L, GoodsStatus.APPROVED), cache.currentGeneration(1L));
+        cache.put(goods(2L, GoodsStatus.APPROVED), cache.currentGeneration(2L));
+        cache.get(1L);
+        cache.put(goods(3L, GoodsStatus.APPROVED), cache.currentGeneration(3L));
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals(1L, cache.snapshot().get("evictions"));
+    }
+
+    @Test
+    void put_EvictingOtherGoodsDoesNotRejectFill() {
+        GoodsDetailCache cache = new GoodsDetailCache(true, 10, 30);
+        long generation = cache.currentGeneration(1L);
+
+        // 读库期间其它商品因下单扣库存被失效
+        cache.evict(2L);
+        cache.evict(3L);
+        cache.put(goods(1L, GoodsStatus.APPROVED), generation);
+
+        assertNotNull(cache.get(1L));
+    }
+
+    @Test
+    void put_SkippedWhenGenerationTableResetDuringLoad() {
+        GoodsDetailCache cache = new GoodsDetailCache(true, 10, 30);
+        long generation = cache.currentGeneration(1L);
+
+        for (long id = 1000; id < 1000 + 4 * 1024 + 1; id++) {
+            cache.evict(id);
+        }
+        cache.put(goods(1L, GoodsStatus.APPROVED), generation);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void put_SkippedWhenInvalidatedDuringLoad() {
+        GoodsDetailCache cache = new GoodsDetailCache(true, 10, 30);
+        long generation = cache.currentGeneration(1L);
+
+        cache.evict(1L);
+        cache.put(goods(1L, GoodsStatus.APPROVED), generation);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void evict_RemovesEntry() {
+        GoodsDetailCache cache = new GoodsDetailCache(true, 10, 30);
+        cache.put(goods(1L, GoodsStatus.APPROVED), cache.currentGeneration(1L));
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        assertEquals(1L, cache.snapshot().get("invalidations"));
+    }
+
+    @Test
+    void get_ExpiresAfterWriteTtl() {
+        AtomicLong now = new AtomicLong(1_000);
+        GoodsDetailCache cache = new GoodsDetailCache(true, 10, 30_000, now::get);
+        cache.put(goods(1L, GoodsStatus.APPROVED), cache.currentGeneration(1L));
+
+        now.addAndGet(29_999);
+        assertNotNull(cache.get(1L));
+
+        now.addAndGet(1);
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.snapshot().get("size"));
+        assertEquals(1L, cache.snapshot().get("expirations"));
+    }
+
+    @Test
+    void get_ReadsDoNotExtendTtl() {
+        AtomicLong now = new AtomicLong(0);
+        GoodsDetailCache cache = new GoodsDetailCache(true, 10, 10_000, now::get);
+        cache.put(goods(1L, GoodsStatus.APPROVED), cache.currentGeneration(1L));
+
+        now.set(9_000);
+        assertNotNull(cache.get(1L));
+        now.set(10_000);
+
+        assertNull(cache.get(1L));
+    }
+
+    private Goods goods(Long id, GoodsStatus status) {
+        Goods goods = new Goods();
+        goods.setId(id);
+        goods.setStatus(status);
+        goods.setStock(5);
+        return goods;
+    }
+}
@@ -0,0 +1,42 @@
+package com.laidekuai.goods.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laidekuai.goods.entity.Goods;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoodsImageCacheTest {
+
+    private final GoodsImageCache cache = new GoodsImageCache(new ObjectMapper(), 2);
+
+    @Test
+    void cover_PrefersCoverUrlColumn() {
+        Goods goods = new Goods();
+        goods.setImageUrls("[\"a\",\"b\"]");
+        goods.setCoverUrl("cover");
+
+        assertThat(cache.cover(goods)).isEqualTo("cover");
+    }
+
+    @Test
+    void cover_FallsBackToImageList() {
+        Goods goods = new Goods();
+        goods.setImageUrls("[\"a\",\"b\"]");
+
+        assertThat(cache.cover(goods)).isEqualTo("a");
+        assertThat(cache.cover((Goods) null)).isNull();
+    }
+
+    @Test
+    void images_ReturnsCachedImmutableList() {
+        List<String> first = cache.images("[\"a\",\"b\"]");
+
+        assertThat(first).containsExactly("a", "b");
+        assertThat(cache.images("[\"a\",\"b\"]")).isSameAs(first);
+        assertThat(cache.images("not json")).isEmpty();
+        assertThat(cache.images(null)).isEmpty();
+    }
+}
@@ -1,12 +1,15 @@
 package com.laidekuai.goods.service;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.laidekuai.audit.service.AuditLogService;
 import com.laidekuai.common.dto.ErrorCode;
 import com.laidekuai.common.enums.GoodsStatus;
 import com.laidekuai.goods.dto.GoodsCreateRequest;
+import com.laidekuai.goods.dto.GoodsCursor;
 import com.laidekuai.goods.dto.GoodsSearchRequest;
+import com.laidekuai.goods.dto.GoodsSummary;
 import com.laidekuai.goods.dto.GoodsUpdateRequest;
 import com.laidekuai.goods.entity.Goods;
 import com.laidekuai.goods.mapper.GoodsMapper;
@@ -26,6 +29,8 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -45,6 +50,9 @@ class GoodsServiceTest {
     @Mock
     private AuditLogService auditLogService;
 
+    @Mock
+    private GoodsDetailCache goodsDetailCache;
+
     @InjectMocks
     private GoodsServiceImpl goodsService;
 
@@ -101,6 +109,7 @@ class GoodsServiceTest {
         assertNotNull(result.getData());
         assertEquals("测试商品", result.getData().getTitle());
         assertEquals(GoodsStatus.DRAFT, result.getData().getStatus());
+        assertEquals("url1", result.getData().getCoverUrl());
         verify(goodsMapper, times(1)).insert(any(Goods.class));
     }
 
@@ -202,6 +211,20 @@ class GoodsServiceTest {
         assertEquals(1L, result.getData().getId());
     }
 
+    @Test
+    void testGetGoodsDetail_CacheHitSkipsMapper() {
+        // Given
+        testGoods.setStatus(GoodsStatus.APPROVED);
+        when(goodsDetailCache.get(1L)).thenReturn(testGoods);
+
+        // When
+        var result = goodsService.getGoodsDetail(1L, null, false);
+
+        // Then
+        assertTrue(result.isSuccess());
+        verify(goodsMapper, never()).selectById(any(Serializable.class));
+    }
+
     @Test
     void testGetGoodsDetail_NotFound() {
         // Given
@@ -328,6 +351,7 @@ class GoodsServiceTest {
         // Then
         assertTrue(result.isSuccess());
         verify(goodsMapper, times(1)).updateById(any(Goods.class));
+        verify(goodsDetailCache).evict(1L);
     }
 
     @Test
@@ -343,4 +367,105 @@ class GoodsServiceTest {
         assertFalse(result.isSuccess());
         verify(goodsMapper, never()).updateById(any(Goods.class));
     }
+
+    @Test
+    void testListGoods_KeywordUsesFullTextRelevance() {
+        // Given
+        GoodsSearchRequest request = new GoodsSearchRequest();
+        request.setKeyword(" 手机壳 ");
+        request.setCategoryId(10L);
+        request.setMaxPrice(new BigDecimal("100"));
+        Page<GoodsSummary> page = new Page<>(1, 10);
+        page.setRecords(List.of(cursorGoods(1L, 1)));
+        page.setTotal(1);
+        when(goodsMapper.searchApproved(any(), eq("手机壳"), eq(10L), isNull(), eq(new BigDecimal("100"))))
+                .thenReturn(page);
+
+        // When
+        var result = goodsService.listGoods(request);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(1L, result.getData().getTotal());
+        verify(goodsMapper, never()).selectSummaryPage(any(), any());
+    }
+
+    @Test
+    void testListGoods_SingleCharKeywordFallsBackToPrefixMatch() {
+        // Given
+        GoodsSearchRequest request = new GoodsSearchRequest();
+        request.setKeyword("书");
+        Page<GoodsSummary> page = new Page<>(1, 10);
+        page.setRecords(List.of());
+        when(goodsMapper.selectSummaryPage(any(), any())).thenReturn(page);
+
+        // When
+        var result = goodsService.listGoods(request);
+
+        // Then
+        assertTrue(result.isSuccess());
+        verify(goodsMapper, never()).searchApproved(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testListGoodsByCursor_ReturnsNextCursorWithoutCount() {
+        // Given
+        GoodsSearchRequest request = new GoodsSearchRequest();
+        request.setSize(2L);
+        request.setAfter("");
+        when(goodsMapper.selectSummaryList(any())).thenReturn(List.of(
+                cursorGoods(3L, 3), cursorGoods(2L, 2), cursorGoods(1L, 1)));
+
+        // When
+        var result = goodsService.listGoodsByCursor(request);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getData().getRecords().size());
+        assertTrue(result.getData().getHasMore());
+        GoodsCursor next = GoodsCursor.decode(result.getData().getNextCursor());
+        assertEquals(2L, next.getId());
+        assertEquals(GoodsCursor.SORT_CREATED_AT, next.getSortBy());
+        verify(goodsMapper, never()).selectSummaryPage(any(), any());
+    }
+
+    @Test
+    void testListGoodsByCursor_LastPageHasNoCursor() {
+        // Given
+        GoodsSearchRequest request = new GoodsSearchRequest();
+        request.setSize(2L);
+        request.setSortBy("price");
+        request.setSortOrder("asc");
+        request.setAfter(GoodsCursor.after(cursorGoods(5L, 5), GoodsCursor.SORT_PRICE, true).encode());
+        when(goodsMapper.selectSummaryList(any())).thenReturn(List.of(cursorGoods(6L, 6)));
+
+        // When
+        var result = goodsService.listGoodsByCursor(request);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getData().getRecords().size());
+        assertFalse(result.getData().getHasMore());
+        assertNull(result.getData().getNextCursor());
+    }
+
+    @Test
+    void testListGoodsByCursor_RejectsMismatchedOrInvalidCursor() {
+        GoodsSearchRequest request = new GoodsSearchRequest();
+        request.setAfter(GoodsCursor.after(cursorGoods(5L, 5), GoodsCursor.SORT_PRICE, true).encode());
+        assertFalse(goodsService.listGoodsByCursor(request).isSuccess());
+
+        request.setAfter("not-a-cursor");
+        assertFalse(goodsService.listGoodsByCursor(request).isSuccess());
+        verify(goodsMapper, never()).selectSummaryList(any());
+    }
+
+    private GoodsSummary cursorGoods(Long id, int minute) {
+        GoodsSummary goods = new GoodsSummary();
+        goods.setId(id);
+        goods.setPrice(new BigDecimal(minute));
+        goods.setCreatedAt(LocalDateTime.of(2026, 1, 1, 10, minute));
+        goods.setStatus(GoodsStatus.APPROVED);
+        return goods;
+    }
 }
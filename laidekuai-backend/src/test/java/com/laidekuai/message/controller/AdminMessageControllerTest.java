@@ -3,6 +3,7 @@ package com.laidekuai.message.controller;
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
 import com.laidekuai.message.dto.MessageDTO;
 import com.laidekuai.message.service.MessageService;
 import org.junit.jupiter.api.Test;
@@ -35,6 +36,9 @@ class AdminMessageControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
     @Test
     void listAdminMessages_ReturnsData() throws Exception {
         PageResult<MessageDTO> page = new PageResult<>();
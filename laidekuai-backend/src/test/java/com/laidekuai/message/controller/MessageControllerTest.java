@@ -3,6 +3,7 @@ package com.laidekuai.message.controller;
 import com.laidekuai.common.dto.PageResult;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.user.service.TokenRevocationStore;
 import com.laidekuai.message.dto.MessageDTO;
 import com.laidekuai.message.service.MessageService;
 import org.junit.jupiter.api.Test;
@@ -36,6 +37,9 @@ class MessageControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
     @Test
     void listGoodsMessages_NewAndCompatRoutes_Consistent() throws Exception {
         MessageDTO dto = new MessageDTO();
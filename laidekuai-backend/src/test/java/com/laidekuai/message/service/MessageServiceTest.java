@@ -15,7 +15,7 @@ import com.laidekuai.message.mapper.MessageMapper;
 import com.laidekuai.message.mapper.MessageReplyMapper;
 import com.laidekuai.message.service.impl.MessageServiceImpl;
 import com.laidekuai.user.entity.User;
-import com.laidekuai.user.mapper.UserMapper;
+import com.laidekuai.user.service.UserDirectory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -24,6 +24,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -43,7 +44,7 @@ class MessageServiceTest {
     private GoodsMapper goodsMapper;
 
     @Mock
-    private UserMapper userMapper;
+    private UserDirectory userDirectory;
 
     @InjectMocks
     private MessageServiceImpl messageService;
@@ -88,7 +89,7 @@ class MessageServiceTest {
         User user = new User();
         user.setId(10L);
         user.setNickName("Tom");
-        when(userMapper.selectBatchIds(anyCollection())).thenReturn(List.of(user));
+        when(userDirectory.resolve(anyCollection())).thenReturn(Map.of(user.getId(), user));
 
         Result<PageResult<MessageDTO>> result = messageService.listGoodsMessages(2L, 1L, 10L, true);
 
@@ -0,0 +1,210 @@
+package com.laidekuai.order.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.laidekuai.common.enums.GoodsStatus;
+import com.laidekuai.goods.entity.Goods;
+import com.laidekuai.goods.mapper.GoodsMapper;
+import com.laidekuai.order.entity.HotStockPending;
+import com.laidekuai.order.mapper.HotStockPendingMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotStockReservationTest {
+
+    @Mock
+    private GoodsMapper goodsMapper;
+
+    @Mock
+    private HotStockPendingMapper hotStockPendingMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void isHot_OnlyConfiguredGoodsWhenEnabled() {
+        assertTrue(new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1, 2").isHot(2L));
+        assertFalse(new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1, 2").isHot(3L));
+        assertFalse(new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, false, "1").isHot(1L));
+    }
+
+    @Test
+    void reserveAll_RejectsWhenTokensExhausted() {
+        when(goodsMapper.selectById(1L)).thenReturn(goods(1L, 5));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1");
+
+        assertTrue(reservation.reserveAll(Map.of(1L, 3)));
+        assertFalse(reservation.reserveAll(Map.of(1L, 3)));
+        assertTrue(reservation.reserveAll(Map.of(1L, 2)));
+        assertEquals(0, reservation.snapshot().get(1L).get("available"));
+        verify(goodsMapper, never()).deductStock(any(), any());
+    }
+
+    @Test
+    void reserveAll_LoadingOneGoodsDoesNotBlockAnother() throws Exception {
+        // 1 与 17 落在 ConcurrentHashMap 的同一个槽位
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(goodsMapper.selectById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return goods(1L, 5);
+        });
+        when(goodsMapper.selectById(17L)).thenReturn(goods(17L, 5));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1,17");
+
+        CompletableFuture<Boolean> slow = CompletableFuture.supplyAsync(() -> reservation.reserveAll(Map.of(1L, 1)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        try {
+            CompletableFuture<Boolean> other = CompletableFuture.supplyAsync(() -> reservation.reserveAll(Map.of(17L, 1)));
+            assertTrue(other.get(2, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+        assertTrue(slow.get(5, TimeUnit.SECONDS));
+        assertEquals(4, reservation.snapshot().get(1L).get("available"));
+    }
+
+    @Test
+    void reserveAll_AllOrNothing() {
+        when(goodsMapper.selectById(1L)).thenReturn(goods(1L, 5));
+        when(goodsMapper.selectById(2L)).thenReturn(goods(2L, 1));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1,2");
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 2);
+        quantities.put(2L, 2);
+
+        assertFalse(reservation.reserveAll(quantities));
+
+        assertEquals(5, reservation.snapshot().get(1L).get("available"));
+        assertEquals(0, reservation.snapshot().get(1L).get("pending"));
+    }
+
+    @Test
+    void reserveAll_ReturnsTokensOnRollback() {
+        when(goodsMapper.selectById(1L)).thenReturn(goods(1L, 5));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(reservation.reserveAll(Map.of(1L, 4)));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(5, reservation.snapshot().get(1L).get("available"));
+        assertEquals(0, reservation.snapshot().get(1L).get("pending"));
+    }
+
+    @Test
+    void reserveAll_RecordsPendingDeductionInOrderTransaction() {
+        when(goodsMapper.selectById(1L)).thenReturn(goods(1L, 5));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1");
+
+        assertTrue(reservation.reserveAll(Map.of(1L, 2)));
+
+        ArgumentCaptor<HotStockPending> captor = ArgumentCaptor.forClass(HotStockPending.class);
+        verify(hotStockPendingMapper).insert(captor.capture());
+        assertEquals(1L, captor.getValue().getGoodsId());
+        assertEquals(2, captor.getValue().getQuantity());
+    }
+
+    @Test
+    void flush_WritesNetDeductionAndReconcilesWithDatabase() {
+        when(goodsMapper.selectById(1L)).thenReturn(goods(1L, 10), goods(1L, 8));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1");
+        reservation.reserveAll(Map.of(1L, 3));
+        reservation.reserveAll(Map.of(1L, 4));
+        when(hotStockPendingMapper.selectList(isNull())).thenReturn(List.of(pending(1L, 1L, 3), pending(2L, 1L, 4)));
+
+        reservation.flush();
+
+        verify(goodsMapper).applyReservedStock(1L, 7);
+        verify(hotStockPendingMapper).deleteBatchIds(List.of(1L, 2L));
+        // 写回后数据库库存 8（其间有 5 件因取消被释放），令牌按数据库校准
+        assertEquals(8, reservation.snapshot().get(1L).get("available"));
+        assertEquals(0, reservation.snapshot().get(1L).get("pending"));
+    }
+
+    @Test
+    void flush_KeepsUncommittedReservationsPending() {
+        when(goodsMapper.selectById(1L)).thenReturn(goods(1L, 10), goods(1L, 7));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1");
+        reservation.reserveAll(Map.of(1L, 3));
+        reservation.reserveAll(Map.of(1L, 2));
+        // 只有第一笔已提交
+        when(hotStockPendingMapper.selectList(isNull())).thenReturn(List.of(pending(1L, 1L, 3)));
+
+        reservation.flush();
+
+        verify(goodsMapper).applyReservedStock(1L, 3);
+        assertEquals(5, reservation.snapshot().get(1L).get("available"));
+        assertEquals(2, reservation.snapshot().get(1L).get("pending"));
+    }
+
+    @Test
+    void restart_RebuildsTokensFromStockMinusPendingAndRecovers() {
+        // 上个进程崩溃前已接受 4 件但未写回
+        when(goodsMapper.selectById(1L)).thenReturn(goods(1L, 10), goods(1L, 6));
+        when(hotStockPendingMapper.selectList(any(LambdaQueryWrapper.class))).thenReturn(List.of(pending(1L, 1L, 4)));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, true, "1");
+
+        assertTrue(reservation.reserveAll(Map.of(1L, 6)));
+        assertFalse(reservation.reserveAll(Map.of(1L, 1)));
+
+        when(hotStockPendingMapper.selectList(isNull())).thenReturn(List.of(pending(1L, 1L, 4), pending(2L, 1L, 6)));
+        reservation.recover();
+
+        verify(goodsMapper).applyReservedStock(1L, 10);
+        assertEquals(0, reservation.snapshot().get(1L).get("pending"));
+    }
+
+    @Test
+    void recover_AppliesLeftoverRowsEvenWhenDisabled() {
+        when(hotStockPendingMapper.selectList(isNull())).thenReturn(List.of(pending(1L, 9L, 2)));
+        HotStockReservation reservation = new HotStockReservation(goodsMapper, hotStockPendingMapper, transactionManager, false, "");
+
+        reservation.recover();
+
+        verify(goodsMapper).applyReservedStock(9L, 2);
+        verify(hotStockPendingMapper).deleteBatchIds(List.of(1L));
+    }
+
+    private HotStockPending pending(Long id, Long goodsId, int quantity) {
+        HotStockPending pending = new HotStockPending();
+        pending.setId(id);
+        pending.setGoodsId(goodsId);
+        pending.setQuantity(quantity);
+        return pending;
+    }
+
+    private Goods goods(Long id, int stock) {
+        Goods goods = new Goods();
+        goods.setId(id);
+        goods.setStatus(GoodsStatus.APPROVED);
+        goods.setStock(stock);
+        return goods;
+    }
+}
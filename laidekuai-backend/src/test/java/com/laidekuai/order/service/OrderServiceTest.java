@@ -4,9 +4,11 @@ import com.laidekuai.address.entity.Address;
 import com.laidekuai.address.mapper.AddressMapper;
 import com.laidekuai.audit.service.AuditLogService;
 import com.laidekuai.common.dto.Result;
+import com.laidekuai.common.scheduler.OrderExpiryQueue;
 import com.laidekuai.common.util.OrderNoGenerator;
 import com.laidekuai.goods.entity.Goods;
 import com.laidekuai.goods.mapper.GoodsMapper;
+import com.laidekuai.goods.service.GoodsImageCache;
 import com.laidekuai.order.dto.OrderCreateRequest;
 import com.laidekuai.order.dto.OrderItemRequest;
 import com.laidekuai.order.dto.ShipRequest;
@@ -15,13 +17,16 @@ import com.laidekuai.order.entity.OrderItem;
 import com.laidekuai.order.mapper.OrderItemMapper;
 import com.laidekuai.order.mapper.OrderMapper;
 import com.laidekuai.order.service.impl.OrderServiceImpl;
+import com.laidekuai.user.service.UserDirectory;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -29,6 +34,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Collections;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -55,6 +61,18 @@ class OrderServiceTest {
     @Mock
     private AuditLogService auditLogService;
 
+    @Mock
+    private UserDirectory userDirectory;
+
+    @Mock
+    private HotStockReservation hotStockReservation;
+
+    @Mock
+    private OrderExpiryQueue orderExpiryQueue;
+
+    @Spy
+    private GoodsImageCache goodsImageCache = new GoodsImageCache(new ObjectMapper(), 100);
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -123,7 +141,55 @@ class OrderServiceTest {
         verify(orderItemMapper).batchInsert(captor.capture());
         assertEquals(1, captor.getValue().size());
         assertEquals(3, captor.getValue().get(0).getQuantity());
+        assertEquals("img", captor.getValue().get(0).getGoodsCover());
         verify(goodsMapper).deductStock(1L, 3);
+        verify(orderExpiryQueue).schedule(eq(99L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testCreateOrder_HotGoodsRejectedBeforeTouchingStock() {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setAddressId(10L);
+        OrderItemRequest item = new OrderItemRequest();
+        item.setGoodsId(1L);
+        item.setQuantity(2);
+        request.setItems(new ArrayList<>(List.of(item)));
+
+        when(orderMapper.countActiveOrders(100L)).thenReturn(0);
+        when(addressMapper.selectById(10L)).thenReturn(address);
+        when(goodsMapper.selectBatchIds(anyList())).thenReturn(List.of(goods));
+        when(hotStockReservation.isHot(1L)).thenReturn(true);
+        when(hotStockReservation.reserveAll(Map.of(1L, 2))).thenReturn(false);
+
+        Result<List<com.laidekuai.order.dto.OrderDTO>> result = orderService.createOrder(request, 100L);
+
+        assertFalse(result.isSuccess());
+        verify(goodsMapper, never()).deductStock(any(), any());
+        verify(orderMapper, never()).insert(any(Order.class));
+    }
+
+    @Test
+    void testCreateOrder_HotGoodsSkipsRowDeduction() {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setAddressId(10L);
+        OrderItemRequest item = new OrderItemRequest();
+        item.setGoodsId(1L);
+        item.setQuantity(2);
+        request.setItems(new ArrayList<>(List.of(item)));
+
+        when(orderMapper.countActiveOrders(100L)).thenReturn(0);
+        when(addressMapper.selectById(10L)).thenReturn(address);
+        when(goodsMapper.selectBatchIds(anyList())).thenReturn(List.of(goods));
+        when(hotStockReservation.isHot(1L)).thenReturn(true);
+        when(hotStockReservation.reserveAll(Map.of(1L, 2))).thenReturn(true);
+        when(orderNoGenerator.generate()).thenReturn("NO1");
+        when(orderMapper.insert(any(Order.class))).thenReturn(1);
+        when(orderItemMapper.batchInsert(anyList())).thenReturn(1);
+
+        Result<List<com.laidekuai.order.dto.OrderDTO>> result = orderService.createOrder(request, 100L);
+
+        assertTrue(result.isSuccess());
+        verify(goodsMapper, never()).deductStock(any(), any());
     }
 
     @Test
@@ -201,6 +267,46 @@ class OrderServiceTest {
         verify(orderItemMapper, times(1)).updateStatusByOrderId(1L, "CANCELED");
     }
 
+    @Test
+    void testCancelOrdersSystemBatch_AggregatesStockRelease() {
+        OrderItem first = new OrderItem();
+        first.setOrderId(1L);
+        first.setGoodsId(9L);
+        first.setQuantity(2);
+        OrderItem second = new OrderItem();
+        second.setOrderId(2L);
+        second.setGoodsId(9L);
+        second.setQuantity(3);
+        OrderItem third = new OrderItem();
+        third.setOrderId(2L);
+        third.setGoodsId(7L);
+        third.setQuantity(1);
+
+        // 订单3已被并发支付，不在锁定结果中
+        when(orderMapper.selectPendingIdsForUpdate(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 2L));
+        when(orderMapper.markCanceledBatchIfPending(eq(List.of(1L, 2L)), eq("TIMEOUT"),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(2);
+        when(orderItemMapper.selectByOrderIds(List.of(1L, 2L))).thenReturn(List.of(first, second, third));
+
+        int canceled = orderService.cancelOrdersSystemBatch(List.of(1L, 2L, 3L));
+
+        assertEquals(2, canceled);
+        verify(goodsMapper).releaseStockBatch(Map.of(9L, 5, 7L, 1));
+        verify(goodsMapper, never()).releaseStock(anyLong(), anyInt());
+        verify(orderItemMapper).updateStatusByOrderIds(List.of(1L, 2L), "CANCELED");
+    }
+
+    @Test
+    void testCancelOrdersSystemBatch_NothingLocked() {
+        when(orderMapper.selectPendingIdsForUpdate(List.of(1L))).thenReturn(List.of());
+
+        int canceled = orderService.cancelOrdersSystemBatch(List.of(1L));
+
+        assertEquals(0, canceled);
+        verify(orderMapper, never()).markCanceledBatchIfPending(any(), any(), any(), any());
+        verify(goodsMapper, never()).releaseStockBatch(any());
+    }
+
     @Test
     void testShipOrderItem_NoAggregateWhenRemainingItems() {
         Order order = new Order();
@@ -281,7 +387,7 @@ class OrderServiceTest {
         page.setTotal(1);
 
         when(orderMapper.selectPage(any(Page.class), any())).thenReturn(page);
-        when(orderItemMapper.selectByOrderId(1L)).thenReturn(Collections.singletonList(item));
+        when(orderItemMapper.selectByOrderIds(anyList())).thenReturn(Collections.singletonList(item));
 
         Result<com.laidekuai.common.dto.PageResult<com.laidekuai.order.dto.OrderDTO>> result =
                 orderService.listAdminOrders(null, null, null, null, null, null, 1L, 10L);
@@ -290,4 +396,46 @@ class OrderServiceTest {
         assertEquals(1, result.getData().getRecords().size());
         assertEquals(1, result.getData().getRecords().get(0).getItems().size());
     }
+
+    @Test
+    void testListBuyerOrders_LoadsItemsInSingleBatch() {
+        Order first = new Order();
+        first.setId(1L);
+        first.setDeleted(0);
+        Order second = new Order();
+        second.setId(2L);
+        second.setDeleted(0);
+        Order empty = new Order();
+        empty.setId(3L);
+        empty.setDeleted(0);
+
+        OrderItem item1 = new OrderItem();
+        item1.setId(11L);
+        item1.setOrderId(1L);
+        OrderItem item2 = new OrderItem();
+        item2.setId(21L);
+        item2.setOrderId(2L);
+        OrderItem item3 = new OrderItem();
+        item3.setId(22L);
+        item3.setOrderId(2L);
+
+        Page<Order> page = new Page<>(1, 10);
+        page.setRecords(List.of(first, second, empty));
+        page.setTotal(3);
+
+        when(orderMapper.selectPage(any(Page.class), any())).thenReturn(page);
+        when(orderItemMapper.selectByOrderIds(List.of(1L, 2L, 3L))).thenReturn(List.of(item1, item2, item3));
+
+        Result<com.laidekuai.common.dto.PageResult<com.laidekuai.order.dto.OrderDTO>> result =
+                orderService.listBuyerOrders(100L, null, 1L, 10L);
+
+        assertTrue(result.isSuccess());
+        List<com.laidekuai.order.dto.OrderDTO> records = result.getData().getRecords();
+        assertEquals(3, records.size());
+        assertEquals(1, records.get(0).getItems().size());
+        assertEquals(2, records.get(1).getItems().size());
+        assertTrue(records.get(2).getItems().isEmpty());
+        verify(orderItemMapper, times(1)).selectByOrderIds(anyList());
+        verify(orderItemMapper, never()).selectByOrderId(anyLong());
+    }
 }
@@ -12,7 +12,7 @@ import com.laidekuai.review.dto.ReviewRequest;
 import com.laidekuai.review.entity.Review;
 import com.laidekuai.review.mapper.ReviewMapper;
 import com.laidekuai.review.service.impl.ReviewServiceImpl;
-import com.laidekuai.user.mapper.UserMapper;
+import com.laidekuai.user.service.UserDirectory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,7 +45,7 @@ class ReviewServiceTest {
     private OrderItemMapper orderItemMapper;
 
     @Mock
-    private UserMapper userMapper;
+    private UserDirectory userDirectory;
 
     @Mock
     private GoodsMapper goodsMapper;
@@ -111,7 +111,7 @@ class ReviewServiceTest {
 
         when(orderItemMapper.selectById(2L)).thenReturn(item);
         when(orderMapper.selectById(20L)).thenReturn(order);
-        when(reviewMapper.countByOrderItemId(2L)).thenReturn(0);
+        lenient().when(reviewMapper.countByOrderItemId(2L)).thenReturn(0);
 
         Result<ReviewDTO> result = reviewService.createReview(request, 100L);
 
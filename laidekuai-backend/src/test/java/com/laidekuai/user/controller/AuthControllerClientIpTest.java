@@ -0,0 +1,58 @@
+package com.laidekuai.user.controller;
+
+import com.laidekuai.user.mapper.UserMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * 经反向代理访问时按 X-Forwarded-For 中的客户端 IP 限流，而不是按代理 IP
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.auth.login-throttle.max-failures-per-user=100",
+                "app.auth.login-throttle.max-failures-per-ip=2"
+        })
+@ActiveProfiles("test")
+class AuthControllerClientIpTest {
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private UserMapper userMapper;
+
+    @Test
+    void login_ThrottlesEachForwardedClientIpSeparately() throws Exception {
+        when(userMapper.selectOne(any())).thenReturn(null);
+
+        // 客户端 A 连续失败达到上限
+        assertThat(login("203.0.113.10", "user-a1")).isEqualTo(200);
+        assertThat(login("203.0.113.10", "user-a2")).isEqualTo(200);
+        assertThat(login("203.0.113.10", "user-a3")).isEqualTo(429);
+
+        // 同一代理转发的客户端 B 不受影响
+        assertThat(login("198.51.100.20", "user-b1")).isEqualTo(200);
+    }
+
+    private int login(String clientIp, String username) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", clientIp)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"password123\"}"))
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,111 @@
+package com.laidekuai.user.service;
+
+import com.laidekuai.user.entity.TokenRevocation;
+import com.laidekuai.user.mapper.TokenRevocationMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationStoreTest {
+
+    private static final long TTL = 7L * 24 * 3600 * 1000;
+
+    private static final long OVERLAP = 60_000;
+
+    @Mock
+    private TokenRevocationMapper tokenRevocationMapper;
+
+    @Test
+    void revoke_InvalidatesEarlierTokensOnly() {
+        TokenRevocationStore store = new TokenRevocationStore(tokenRevocationMapper, TTL, OVERLAP);
+        long issuedBefore = System.currentTimeMillis() - 10_000;
+
+        store.revoke(1L, "PASSWORD_CHANGED");
+
+        assertThat(store.isRevoked(1L, issuedBefore)).isTrue();
+        assertThat(store.isRevoked(1L, System.currentTimeMillis() + 1_000)).isFalse();
+        assertThat(store.isRevoked(2L, issuedBefore)).isFalse();
+        verify(tokenRevocationMapper).upsert(eq(1L), any(LocalDateTime.class), eq("PASSWORD_CHANGED"));
+    }
+
+    @Test
+    void load_RestoresRevocationsFromTable() {
+        LocalDateTime revokedAt = LocalDateTime.now().minusMinutes(5);
+        TokenRevocation row = new TokenRevocation();
+        row.setUserId(3L);
+        row.setRevokedBefore(revokedAt);
+        row.setUpdatedAt(revokedAt);
+        when(tokenRevocationMapper.selectList(any())).thenReturn(List.of(row));
+        TokenRevocationStore store = new TokenRevocationStore(tokenRevocationMapper, TTL, OVERLAP);
+
+        store.load();
+
+        long issuedAt = revokedAt.minusMinutes(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertThat(store.isRevoked(3L, issuedAt)).isTrue();
+    }
+
+    @Test
+    void load_FailureKeepsServing() {
+        when(tokenRevocationMapper.selectList(any())).thenThrow(new RuntimeException("db down"));
+        TokenRevocationStore store = new TokenRevocationStore(tokenRevocationMapper, TTL, OVERLAP);
+
+        store.load();
+
+        assertThat(store.isRevoked(1L, 0L)).isFalse();
+    }
+
+    @Test
+    void refresh_WatermarkComesFromDatabaseClock() {
+        // Given：首次加载时数据库时间为 t0
+        LocalDateTime t0 = LocalDateTime.now().withNano(0).minusMinutes(5);
+        LocalDateTime t1 = t0.plusSeconds(30);
+        when(tokenRevocationMapper.selectDbNow()).thenReturn(t0, t1);
+        when(tokenRevocationMapper.selectList(any())).thenReturn(List.of());
+        // 吊销事务在 t0 之前写入 updated_at、t0 之后才提交
+        TokenRevocation lateCommit = new TokenRevocation();
+        lateCommit.setUserId(5L);
+        lateCommit.setRevokedBefore(t0.minusSeconds(10));
+        lateCommit.setUpdatedAt(t0.minusSeconds(10));
+        when(tokenRevocationMapper.selectUpdatedSince(t0.minusSeconds(60))).thenReturn(List.of(lateCommit));
+        TokenRevocationStore store = new TokenRevocationStore(tokenRevocationMapper, TTL, OVERLAP);
+
+        // When
+        store.load();
+        store.refresh();
+        store.refresh();
+
+        // Then
+        long issuedAt = t0.minusMinutes(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertThat(store.isRevoked(5L, issuedAt)).isTrue();
+        verify(tokenRevocationMapper).selectUpdatedSince(t0.minusSeconds(60));
+        verify(tokenRevocationMapper).selectUpdatedSince(t1.minusSeconds(60));
+    }
+
+    @Test
+    void refresh_FailureKeepsWatermark() {
+        LocalDateTime t0 = LocalDateTime.now().withNano(0).minusMinutes(5);
+        when(tokenRevocationMapper.selectDbNow()).thenReturn(t0);
+        when(tokenRevocationMapper.selectList(any())).thenReturn(List.of());
+        when(tokenRevocationMapper.selectUpdatedSince(any()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(List.of());
+        TokenRevocationStore store = new TokenRevocationStore(tokenRevocationMapper, TTL, OVERLAP);
+
+        store.load();
+        store.refresh();
+        store.refresh();
+
+        verify(tokenRevocationMapper, times(2)).selectUpdatedSince(t0.minusSeconds(60));
+    }
+}
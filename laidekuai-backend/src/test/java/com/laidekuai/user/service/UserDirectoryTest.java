@@ -0,0 +1,109 @@
+package com.laidekuai.user.service;
+
+import com.laidekuai.user.entity.User;
+import com.laidekuai.user.mapper.UserMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void resolve_LoadsMissingUsersInSingleBatch() {
+        UserDirectory directory = new UserDirectory(userMapper, false, 100, 60);
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(List.of(user(1L, "Tom"), user(2L, null)));
+
+        Map<Long, User> users = directory.resolve(List.of(1L, 2L, 1L, 3L));
+
+        assertThat(users).containsOnlyKeys(1L, 2L);
+        assertThat(users.get(1L).getPasswordHash()).isNull();
+        assertThat(UserDirectory.displayName(2L, users.get(2L))).isEqualTo("user2");
+        assertThat(UserDirectory.displayName(3L, users.get(3L))).isEqualTo("用户3");
+        verify(userMapper, times(1)).selectBatchIds(anyCollection());
+    }
+
+    @Test
+    void resolve_MemoizesWithinRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        UserDirectory directory = new UserDirectory(userMapper, false, 100, 60);
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(List.of(user(1L, "Tom")));
+
+        directory.resolve(List.of(1L, 9L));
+        User user = directory.get(1L);
+
+        assertThat(user.getNickName()).isEqualTo("Tom");
+        assertThat(directory.get(9L)).isNull();
+        verify(userMapper, times(1)).selectBatchIds(anyCollection());
+    }
+
+    @Test
+    void invalidate_EvictsProcessCache() {
+        UserDirectory directory = new UserDirectory(userMapper, true, 100, 60);
+        when(userMapper.selectBatchIds(anyCollection()))
+                .thenReturn(List.of(user(1L, "Tom")))
+                .thenReturn(List.of(user(1L, "Jerry")));
+
+        assertThat(directory.get(1L).getNickName()).isEqualTo("Tom");
+        assertThat(directory.get(1L).getNickName()).isEqualTo("Tom");
+        directory.invalidate(1L);
+
+        assertThat(directory.get(1L).getNickName()).isEqualTo("Jerry");
+        verify(userMapper, times(2)).selectBatchIds(anyCollection());
+    }
+
+    @Test
+    void invalidate_InTransactionEvictsAgainAfterCompletion() {
+        UserDirectory directory = new UserDirectory(userMapper, true, 100, 60);
+        when(userMapper.selectBatchIds(anyCollection()))
+                .thenReturn(List.of(user(1L, "Tom")))
+                .thenReturn(List.of(user(1L, "Tom")))
+                .thenReturn(List.of(user(1L, "Jerry")));
+        directory.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            directory.invalidate(1L);
+            // 提交前的并发读仍读到旧资料并回填
+            assertThat(directory.get(1L).getNickName()).isEqualTo("Tom");
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(directory.get(1L).getNickName()).isEqualTo("Jerry");
+    }
+
+    private User user(Long id, String nickName) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setNickName(nickName);
+        user.setPasswordHash("hash");
+        return user;
+    }
+}
@@ -7,7 +7,11 @@ import com.laidekuai.common.dto.RegisterRequest;
 import com.laidekuai.common.dto.Result;
 import com.laidekuai.common.dto.UserUpdateRequest;
 import com.laidekuai.common.enums.Role;
+import com.laidekuai.common.exception.TooManyRequestsException;
 import com.laidekuai.common.util.JwtUtil;
+import com.laidekuai.goods.mapper.GoodsMapper;
+import com.laidekuai.order.mapper.OrderItemMapper;
+import com.laidekuai.order.mapper.OrderMapper;
 import com.laidekuai.user.entity.User;
 import com.laidekuai.user.mapper.UserMapper;
 import com.laidekuai.user.service.impl.UserServiceImpl;
@@ -44,6 +48,21 @@ class UserServiceTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private OrderMapper orderMapper;
+
+    @MockBean
+    private OrderItemMapper orderItemMapper;
+
+    @MockBean
+    private GoodsMapper goodsMapper;
+
+    @MockBean
+    private UserDirectory userDirectory;
+
+    @MockBean
+    private TokenRevocationStore tokenRevocationStore;
+
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
@@ -51,7 +70,8 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userMapper, jwtUtil);
+        userService = new UserServiceImpl(userMapper, jwtUtil, orderMapper, orderItemMapper, goodsMapper, userDirectory,
+                tokenRevocationStore, new PasswordHasher(10, 2, 16, 5000), new LoginAttemptLimiter(5, 20, 900, 1000));
     }
 
     @Test
@@ -213,6 +233,82 @@ class UserServiceTest {
         assertThat(result.getCode()).isEqualTo(ErrorCode.USER_DISABLED.getCode());
     }
 
+    @Test
+    @DisplayName("异常场景：禁用账号密码正确也不清除失败计数、不重算哈希")
+    void login_UserDisabled_KeepsFailuresAndHash() {
+        userService = new UserServiceImpl(userMapper, jwtUtil, orderMapper, orderItemMapper, goodsMapper, userDirectory,
+                tokenRevocationStore, new PasswordHasher(4, 1, 4, 5000), new LoginAttemptLimiter(2, 20, 900, 1000));
+        LoginRequest wrong = new LoginRequest();
+        wrong.setUsername("testuser");
+        wrong.setPassword("wrongpassword");
+        LoginRequest right = new LoginRequest();
+        right.setUsername("testuser");
+        right.setPassword("password123");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setPasswordHash(passwordEncoder.encode("password123"));
+        user.setStatus("DISABLED");
+
+        when(userMapper.selectOne(any())).thenReturn(user);
+
+        assertThat(userService.login(wrong).getCode()).isEqualTo(ErrorCode.PASSWORD_ERROR.getCode());
+        assertThat(userService.login(right).getCode()).isEqualTo(ErrorCode.USER_DISABLED.getCode());
+        assertThat(userService.login(wrong).getCode()).isEqualTo(ErrorCode.PASSWORD_ERROR.getCode());
+
+        assertThatThrownBy(() -> userService.login(right)).isInstanceOf(TooManyRequestsException.class);
+        verify(userMapper, never()).update(any(), any());
+    }
+
+    @Test
+    @DisplayName("异常场景：连续密码错误后登录被限流")
+    void login_RepeatedFailures_Throttled() {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("testuser");
+        request.setPassword("wrongpassword");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setPasswordHash(passwordEncoder.encode("password123"));
+        user.setStatus("ACTIVE");
+
+        when(userMapper.selectOne(any())).thenReturn(user);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(userService.login(request).getCode()).isEqualTo(ErrorCode.PASSWORD_ERROR.getCode());
+        }
+
+        assertThatThrownBy(() -> userService.login(request)).isInstanceOf(TooManyRequestsException.class);
+        verify(userMapper, times(5)).selectOne(any());
+    }
+
+    @Test
+    @DisplayName("正常场景：哈希成本与配置不一致时登录成功后重算")
+    void login_Success_RehashesToConfiguredCost() {
+        userService = new UserServiceImpl(userMapper, jwtUtil, orderMapper, orderItemMapper, goodsMapper, userDirectory,
+                tokenRevocationStore, new PasswordHasher(4, 1, 4, 5000), new LoginAttemptLimiter(5, 20, 900, 1000));
+        LoginRequest request = new LoginRequest();
+        request.setUsername("testuser");
+        request.setPassword("password123");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setPasswordHash(passwordEncoder.encode("password123"));
+        user.setRole(Role.BUYER);
+        user.setStatus("ACTIVE");
+
+        when(userMapper.selectOne(any())).thenReturn(user);
+        when(jwtUtil.generateToken(1L, "testuser", "BUYER")).thenReturn("mock-jwt-token");
+
+        Result<?> result = userService.login(request);
+
+        assertThat(result.getCode()).isEqualTo(0);
+        verify(userMapper).update(isNull(), any());
+    }
+
     @Test
     @DisplayName("正常场景：获取当前用户信息成功")
     void getCurrentUser_Success() {
@@ -267,6 +363,7 @@ class UserServiceTest {
         assertThat(result.getCode()).isEqualTo(0);
         assertThat(result.getData().getNickName()).isEqualTo("新昵称");
         verify(userMapper, times(1)).updateById(any(User.class));
+        verify(userDirectory).invalidate(1L);
     }
 
     @Test
@@ -331,6 +428,7 @@ class UserServiceTest {
 
         assertThat(result.getCode()).isEqualTo(0);
         verify(userMapper, times(1)).updateById(any(User.class));
+        verify(tokenRevocationStore).revoke(1L, "PASSWORD_CHANGED");
     }
 
     @Test
@@ -12,6 +12,10 @@ const request = axios.create({
   }
 })
 
+// 写操作后后端下发的主库读截止时间，截止前回传，保证读到自己刚写入的数据
+const PRIMARY_READ_HEADER = 'X-Primary-Read-Until'
+let primaryReadUntil = 0
+
 /**
  * 请求拦截器
  */
@@ -22,6 +26,9 @@ request.interceptors.request.use(
     if (token) {
       config.headers.Authorization = `Bearer ${token}`
     }
+    if (primaryReadUntil > Date.now()) {
+      config.headers[PRIMARY_READ_HEADER] = String(primaryReadUntil)
+    }
     return config
   },
   error => {
@@ -35,6 +42,10 @@ request.interceptors.request.use(
  */
 request.interceptors.response.use(
   response => {
+    const until = Number(response.headers[PRIMARY_READ_HEADER.toLowerCase()])
+    if (until > primaryReadUntil) {
+      primaryReadUntil = until
+    }
     const res = response.data
 
     // code为0表示成功
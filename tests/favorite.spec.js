@@ -27,7 +27,7 @@ test('favorite list renders items', async ({ page }) => {
               price: 1999,
               stock: 2,
               status: 'APPROVED',
-              imageUrls: '["/static/files/20260221/camera.jpg"]'
+              coverUrl: '/static/files/20260221/camera.jpg'
             }
           ],
           total: 1
@@ -19,7 +19,7 @@ test.describe('goods pages', () => {
                 id: 1,
                 title: '二手手机',
                 price: 1999,
-                imageUrls: JSON.stringify(['/static/files/20260221/a.jpg'])
+                coverUrl: '/static/files/20260221/a.jpg'
               }
             ],
             total: 1